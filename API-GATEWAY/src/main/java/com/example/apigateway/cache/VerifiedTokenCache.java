@@ -0,0 +1,123 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.util.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Tokens that already passed signature verification, so a session's repeated requests
+// (polls, moves) cost one SHA-256 and a hash lookup instead of HMAC + claims decode.
+// - keyed by the token's SHA-256 digest, so raw tokens are never kept in memory
+// - an entry expires exactly when its token does and is dropped on the next read
+// - bounded: STRIPES access-order LRUs, each behind its own lock, so event-loop
+//   threads rarely contend
+// - only successful verifications are cached; garbage tokens cannot fill it up
+@Component
+public class VerifiedTokenCache {
+
+    private static final int STRIPES = 16;
+
+    private record Key(long a, long b, long c, long d) {}
+
+    private final JwtUtil jwtUtil;
+    private final int maxPerStripe;
+    private final Map<Key, JwtUtil.VerifiedToken>[] stripes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @SuppressWarnings("unchecked")
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            MeterRegistry registry,
+            @Value("${jwt.cache.max-size:10000}") int maxSize
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.maxPerStripe = Math.max(0, maxSize / STRIPES);
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, JwtUtil.VerifiedToken> eldest) {
+                    if (size() > maxPerStripe) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        this.hits = Counter.builder("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "verifiedTokens").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", "verifiedTokens").register(registry);
+        Gauge.builder("cache.size", this, VerifiedTokenCache::size).tag("cache", "verifiedTokens").register(registry);
+    }
+
+    // userId of a valid, unexpired token, otherwise null
+    public Long authenticate(String token) {
+        if (maxPerStripe == 0) {
+            JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+            return verified != null ? verified.userId() : null;
+        }
+
+        Key key = digest(token);
+        Map<Key, JwtUtil.VerifiedToken> stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        long now = System.currentTimeMillis();
+
+        synchronized (stripe) {
+            JwtUtil.VerifiedToken cached = stripe.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > now) {
+                    hits.increment();
+                    return cached.userId();
+                }
+                stripe.remove(key); // token expired - never outlive it
+            }
+        }
+
+        misses.increment();
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token); // outside the lock
+        if (verified == null) {
+            return null;
+        }
+        synchronized (stripe) {
+            stripe.put(key, verified);
+        }
+        return verified.userId();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Key, JwtUtil.VerifiedToken> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static Key digest(String token) {
+        MessageDigest sha256 = SHA256.get();
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new Key(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// gateway.coalesce.* - see RequestCoalescingFilter
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalesce")
+public class CoalesceProperties {
+
+    private boolean enabled = true;
+
+    // only GETs under these paths are coalesced
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String path;              // same syntax as public-urls: exact + subtree, "*" = one segment
+        private boolean shared = false;   // true = response does not depend on the caller (X-USER-ID)
+    }
+}
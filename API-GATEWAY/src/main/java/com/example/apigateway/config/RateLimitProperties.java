@@ -0,0 +1,40 @@
+package com.example.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// gateway.rate-limit.* - see RateLimitFilter
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // buckets untouched for this long are dropped (they would be full again anyway)
+    private long idleEvictionMs = 300_000;
+
+    // applies to every path without a more specific rule
+    private Rule defaultRule = new Rule("/", 50, 20);
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String path;              // same syntax as public-urls: exact + subtree, "*" = one segment
+        private int capacity;             // burst size
+        private double refillPerSecond;   // sustained rate
+
+        public Rule() {}
+
+        public Rule(String path, int capacity, double refillPerSecond) {
+            this.path = path;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Gives every request an X-Correlation-Id (the client's, if it sent a sane one - see isSafe), forwards
+// it to the service and returns it to the caller. Services put it into their log MDC.
+// The event loop has no per-request MDC, so gateway log lines carry it as an argument
+// (see correlationId(exchange)).
+@Component
+public class CorrelationIdFilter implements GlobalFilter, Ordered {
+
+    public static final String HEADER = "X-Correlation-Id";
+    private static final String ATTRIBUTE = CorrelationIdFilter.class.getName() + ".id";
+
+    public static String correlationId(ServerWebExchange exchange) {
+        return exchange.getAttribute(ATTRIBUTE);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String id = exchange.getRequest().getHeaders().getFirst(HEADER);
+        if (!isSafe(id)) {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+
+        exchange.getAttributes().put(ATTRIBUTE, id);
+        exchange.getResponse().getHeaders().set(HEADER, id);
+
+        ServerHttpRequest request = exchange.getRequest().mutate().header(HEADER, id).build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    // 1-64 of [A-Za-z0-9._-]: anything else (CR/LF, quotes, spaces) could forge or break log lines
+    static boolean isSafe(String id) {
+        if (id == null || id.isEmpty() || id.length() > 64) return false;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return -5; // before JwtAuthenticationFilter (-4), so rejected requests carry an id too
+    }
+}
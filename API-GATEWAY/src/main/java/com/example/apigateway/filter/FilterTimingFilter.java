@@ -0,0 +1,74 @@
+package com.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Time a request spends in the gateway's own filters before it leaves for a service -
+// correlation id, JWT, rate limit, coalescing, route rewriting and the load-balancer pick.
+//   gateway.filters   tag route
+// Stamped here (first filter), recorded by Stop (right after the load balancer). Requests
+// answered by the gateway itself (401, 429, coalesced followers) never reach Stop.
+// Whole-request latency including the service is spring.cloud.gateway.requests.
+@Component
+public class FilterTimingFilter implements GlobalFilter, Ordered {
+
+    private static final String START = FilterTimingFilter.class.getName() + ".start";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(START, System.nanoTime());
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Component
+    public static class Stop implements GlobalFilter, Ordered {
+
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+        private final MeterRegistry registry;
+
+        public Stop(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            Long start = exchange.getAttribute(START);
+            if (start != null) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                timer(route != null ? route.getId() : "none")
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return chain.filter(exchange);
+        }
+
+        private Timer timer(String routeId) {
+            return timers.computeIfAbsent(routeId, id -> Timer.builder("gateway.filters")
+                    .description("Time spent in gateway filters before the request is sent upstream")
+                    .tag("route", id)
+                    .register(registry));
+        }
+
+        @Override
+        public int getOrder() {
+            return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+        }
+    }
+}
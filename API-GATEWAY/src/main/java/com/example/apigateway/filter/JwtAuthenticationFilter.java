@@ -1,6 +1,9 @@
 package com.example.apigateway.filter;
 
-import com.example.apigateway.util.JwtUtil;
+import com.example.apigateway.cache.VerifiedTokenCache;
+import com.example.apigateway.routing.InternalPaths;
+import com.example.apigateway.routing.PublicPaths;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -11,15 +14,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
+@Slf4j
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
-    private final JwtUtil jwtUtil;
-
-    @Value("${security.public-urls}")
-    private List<String> publicUrls;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PublicPaths publicPaths;
+    private final InternalPaths internalPaths;
 
     @Value("${jwt.header}")
     private String authHeader;
@@ -27,8 +28,11 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     @Value("${jwt.prefix}")
     private String prefix;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, PublicPaths publicPaths,
+                                   InternalPaths internalPaths) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.publicPaths = publicPaths;
+        this.internalPaths = internalPaths;
     }
 
     @Override
@@ -36,8 +40,14 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         String path = exchange.getRequest().getURI().getPath();
 
+        // 0️⃣ Internal endpoints are not exposed at all - a valid token does not help
+        if (internalPaths.isInternal(path)) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+
         // 1️⃣ Public URL check
-        if (isPublicPath(path)) {
+        if (publicPaths.isPublic(path)) {
             return chain.filter(exchange);
         }
 
@@ -59,16 +69,15 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
               return exchange.getResponse().setComplete();
         }
 
-        // 4️⃣ Validate token
-        if (!jwtUtil.isTokenValid(token)) {
+        // 4️⃣ Validate token (cached after the first verification; single parse on a miss)
+        Long userId = verifiedTokenCache.authenticate(token);
+        if (userId == null) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
-        Long userId = jwtUtil.extractUserId(token);
-
         // 4️⃣ Forward userId
-        System.out.println("GATEWAY → sending X-USER-ID = " + userId);
+        log.debug("forwarding X-USER-ID={} correlationId={}", userId, CorrelationIdFilter.correlationId(exchange));
         ServerHttpRequest modifiedRequest = exchange.getRequest()
                 .mutate()
                 .header("X-USER-ID", String.valueOf(userId))
@@ -77,13 +86,9 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
-    private boolean isPublicPath(String path) {
-        return publicUrls.stream().anyMatch(path::startsWith);
-    }
-
     @Override
     public int getOrder() {
-        return -1;
+        return -4; // before RateLimitFilter (-3) and RequestCoalescingFilter (-2)
     }
 
 }
@@ -0,0 +1,104 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.RateLimitProperties;
+import com.example.apigateway.ratelimit.TokenBucketRateLimiter;
+import com.example.apigateway.routing.PathTrie;
+import com.example.apigateway.routing.PublicPaths;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+// Per-client, per-route token buckets (gateway.rate-limit). Runs right after
+// JwtAuthenticationFilter, so authenticated requests are keyed on the verified X-USER-ID;
+// public paths (login, signup) are keyed on the client address instead.
+// Rules match the path the service will see: the discovery locator also routes
+// /<service-id>/** (e.g. /game-service/games/1/move) and only strips the prefix after this
+// filter, so that prefix is dropped here first. STOMP frames on an open socket never pass
+// through here - GAME-SERVICE limits those itself (StompSendRateLimiter).
+// Over the limit: 429 with Retry-After (seconds), the request never reaches a service.
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final TokenBucketRateLimiter limiter;
+    private final PublicPaths publicPaths;
+    private final RateLimitProperties properties;
+    private final PathTrie<RateLimitProperties.Rule> rules = new PathTrie<>();
+
+    public RateLimitFilter(TokenBucketRateLimiter limiter, PublicPaths publicPaths, RateLimitProperties properties) {
+        this.limiter = limiter;
+        this.publicPaths = publicPaths;
+        this.properties = properties;
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            rules.add(rule.getPath(), rule);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getURI().getPath();
+
+        String client = clientKey(request, path);
+        if (client == null) {
+            return chain.filter(exchange);
+        }
+
+        RateLimitProperties.Rule rule = rules.match(servicePath(exchange, path));
+        if (rule == null) {
+            rule = properties.getDefaultRule();
+        }
+
+        long retryAfterMs = limiter.tryAcquire(client, rule);
+        if (retryAfterMs == 0) {
+            return chain.filter(exchange);
+        }
+
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000));
+        return exchange.getResponse().setComplete();
+    }
+
+    // Discovery locator routes point at lb://<service-id> and are matched on /<service-id>/**
+    private static String servicePath(ServerWebExchange exchange, String path) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String serviceId = route != null ? route.getUri().getHost() : null;
+        if (serviceId == null) return path;
+
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        if (end < 0) end = path.length();
+        int semicolon = path.indexOf(';', start); // "/game-service;x/..." is routed like "/game-service/..."
+        int length = (semicolon >= 0 && semicolon < end ? semicolon : end) - start;
+        if (length != serviceId.length() || !path.regionMatches(true, start, serviceId, 0, length)) {
+            return path;
+        }
+        return end < path.length() ? path.substring(end) : "/";
+    }
+
+    private String clientKey(ServerHttpRequest request, String path) {
+        if (!publicPaths.isPublic(path)) {
+            return request.getHeaders().getFirst("X-USER-ID"); // set by JwtAuthenticationFilter
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null ? "ip:" + remote.getAddress().getHostAddress() : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return -3; // after JwtAuthenticationFilter (-4), before RequestCoalescingFilter (-2)
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.CoalesceProperties;
+import com.example.apigateway.routing.PathTrie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-flight for idempotent GETs (gateway.coalesce.routes).
+// The first request for a key goes upstream; identical requests arriving while it is in
+// flight wait for it and get a copy of its response. Nothing is cached: the key is dropped
+// as soon as the response is known, so the next request goes upstream again.
+// The key carries the verified X-USER-ID unless the route is marked shared, so a caller
+// only ever receives a response produced under its own identity.
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {}
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final PathTrie<CoalesceProperties.Route> routes = new PathTrie<>();
+    private final CoalesceProperties properties;
+    private final Counter coalesced;
+
+    public RequestCoalescingFilter(CoalesceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (CoalesceProperties.Route route : properties.getRoutes()) {
+            routes.add(route.getPath(), route);
+        }
+        this.coalesced = Counter.builder("gateway.requests.coalesced")
+                .description("GETs answered with another in-flight request's response")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        CoalesceProperties.Route route = routes.match(request.getURI().getPath());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request, route);
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+        if (leader != null) {
+            coalesced.increment();
+            // leader without a body (error, cancelled, bodiless reply) -> go upstream ourselves
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> shared.isPresent()
+                            ? write(exchange.getResponse(), shared.get())
+                            : chain.filter(exchange));
+        }
+
+        ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                        .map(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            return bytes;
+                        })
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(bytes -> {
+                            publish(key, sink, new SharedResponse(getStatusCode(), copy(getHeaders()), bytes));
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).flatMapSequential(part -> part));
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty(); // no-op if already answered
+                });
+    }
+
+    private void publish(String key, Sinks.One<SharedResponse> sink, SharedResponse response) {
+        inFlight.remove(key, sink); // later arrivals start a fresh upstream call
+        sink.tryEmitValue(response);
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    // Everything the upstream response may depend on
+    private String key(ServerHttpRequest request, CoalesceProperties.Route route) {
+        HttpHeaders headers = request.getHeaders();
+        String user = "";
+        if (!route.isShared()) {
+            user = headers.getFirst("X-USER-ID"); // set by JwtAuthenticationFilter
+            if (user == null) return null;
+        }
+        return user
+                + '|' + request.getURI().getRawPath()
+                + '?' + request.getURI().getRawQuery()
+                + '|' + headers.getFirst(HttpHeaders.IF_NONE_MATCH)
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT)
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static HttpHeaders copy(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        copy.remove(HttpHeaders.TRANSFER_ENCODING);
+        return copy;
+    }
+
+    @Override
+    public int getOrder() {
+        // must wrap the response before NettyWriteResponseFilter (-1) writes to it
+        return -2;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-instance load signal for LatencyAwareLoadBalancer: requests in flight plus a
+// peak-sensitive EWMA of response time. A slower sample is taken as-is (a GC pause shows
+// up immediately), faster samples pull the average down with a time-based weight.
+// Without samples the estimate drifts back to the initial guess, so an instance that
+// was avoided gets probed again once it has been idle for a while.
+// One instance of this is shared by the load balancers of all services. Instances that
+// left the registry are dropped by retainOnly (called by the balancers).
+@Component
+public class InstanceLatencyTracker {
+
+    private static final class Stats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long sampledAt; // 0 = no sample yet
+
+        synchronized void observe(long rttNanos, long now, double tauNanos) {
+            if (sampledAt == 0 || rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double w = Math.exp(-(now - sampledAt) / tauNanos);
+                ewmaNanos = ewmaNanos * w + rttNanos * (1 - w);
+            }
+            sampledAt = now;
+        }
+
+        synchronized double latency(long now, double tauNanos, double initialNanos) {
+            if (sampledAt == 0) return initialNanos;
+            double w = Math.exp(-(now - sampledAt) / tauNanos);
+            return initialNanos + (ewmaNanos - initialNanos) * w;
+        }
+    }
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final double tauNanos;
+    private final double initialNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLatencyTracker(
+            @Value("${gateway.load-balancer.decay-ms:10000}") long decayMs,
+            @Value("${gateway.load-balancer.initial-latency-ms:50}") long initialLatencyMs,
+            @Value("${gateway.load-balancer.failure-penalty-ms:2000}") long failurePenaltyMs
+    ) {
+        this.tauNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.initialNanos = TimeUnit.MILLISECONDS.toNanos(initialLatencyMs);
+        this.failurePenaltyNanos = TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs);
+    }
+
+    // Lower is better: expected latency scaled by the queue the request would join
+    public double cost(ServiceInstance instance) {
+        Stats s = stats(instance);
+        return s.latency(System.nanoTime(), tauNanos, initialNanos) * (s.inFlight.get() + 1);
+    }
+
+    public void started(ServiceInstance instance) {
+        stats(instance).inFlight.incrementAndGet();
+    }
+
+    public void finished(ServiceInstance instance, long startNanos, boolean failed) {
+        Stats s = stats.get(key(instance));
+        if (s == null) return; // pruned while the request was running
+        s.inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        s.observe(failed ? Math.max(failurePenaltyNanos, now - startNanos) : now - startNanos, now, tauNanos);
+    }
+
+    // Forget instances of these services that are not in the current list
+    public void retainOnly(List<ServiceInstance> live) {
+        if (live.isEmpty()) return;
+        Set<String> keep = new HashSet<>();
+        Set<String> services = new HashSet<>();
+        for (ServiceInstance instance : live) {
+            keep.add(key(instance));
+            services.add(instance.getServiceId() + '/');
+        }
+        stats.keySet().removeIf(key ->
+                !keep.contains(key) && services.contains(key.substring(0, key.indexOf('/') + 1)));
+    }
+
+    public int size() {
+        return stats.size();
+    }
+
+    private Stats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new Stats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '/' + instance.getHost() + ':' + instance.getPort();
+    }
+}
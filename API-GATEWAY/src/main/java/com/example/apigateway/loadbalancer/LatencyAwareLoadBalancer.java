@@ -0,0 +1,91 @@
+package com.example.apigateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Power of two choices: pick two instances at random and route to the one with the
+// lower cost (latency EWMA x in-flight, see InstanceLatencyTracker). A degraded instance
+// loses almost every comparison, yet nothing herds onto the single "best" instance.
+// Pinned services (gateway.load-balancer.pinned-services) keep per-JVM state - the
+// matchmaking pool, GAME-SERVICE's STOMP broker, snapshot cache and spectator queues - so
+// spreading their requests would split that state. They always get the same instance
+// (lowest host:port, so every gateway agrees), and the next one only once it is gone.
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final long PRUNE_EVERY_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final Comparator<ServiceInstance> PINNED_ORDER =
+            Comparator.comparing(ServiceInstance::getHost).thenComparingInt(ServiceInstance::getPort);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceLatencyTracker tracker;
+    private final boolean pinned;
+    private volatile long prunedAt;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    String serviceId,
+                                    InstanceLatencyTracker tracker,
+                                    boolean pinned) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+        this.pinned = pinned;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        int n = instances.size();
+        if (n == 0) {
+            log.warn("no instances available for {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (n == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        if (pinned) {
+            return new DefaultResponse(instances.stream().min(PINNED_ORDER).orElseThrow());
+        }
+
+        long now = System.nanoTime();
+        if (now - prunedAt > PRUNE_EVERY_NANOS) {
+            prunedAt = now;
+            tracker.retainOnly(instances);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(n);
+        int j = random.nextInt(n - 1);
+        if (j >= i) j++;
+
+        ServiceInstance a = instances.get(i);
+        ServiceInstance b = instances.get(j);
+        return new DefaultResponse(tracker.cost(a) <= tracker.cost(b) ? a : b);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+// Loaded into each service's load-balancer child context (see LoadBalancerConfig),
+// deliberately not a @Configuration so component scanning leaves it alone.
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory clientFactory,
+                                                                         InstanceLatencyTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        String[] pinnedServices = environment.getProperty(
+                "gateway.load-balancer.pinned-services", String[].class, new String[0]);
+        boolean pinned = Arrays.stream(pinnedServices).anyMatch(id -> id.trim().equalsIgnoreCase(serviceId));
+        return new LatencyAwareLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, tracker, pinned);
+    }
+
+    @Bean
+    public LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> latencyRecordingLifecycle(
+            InstanceLatencyTracker tracker) {
+        return new LatencyRecordingLifecycle(tracker);
+    }
+}
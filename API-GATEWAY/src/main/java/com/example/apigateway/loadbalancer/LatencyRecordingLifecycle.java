@@ -0,0 +1,65 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+// Feeds InstanceLatencyTracker from the gateway's load-balanced calls.
+// Long-lived exchanges (WebSocket upgrades, SSE streams, /check?wait= long-polls) are
+// left out entirely - their duration says nothing about how healthy the instance is.
+public class LatencyRecordingLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceLatencyTracker tracker;
+
+    public LatencyRecordingLifecycle(InstanceLatencyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer() || isLongLived(request.getContext().getClientRequest())) return;
+        request.getContext().setRequestStartTime(System.nanoTime());
+        tracker.started(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        long start = context.getLoadBalancerRequest().getContext().getRequestStartTime();
+        Response<ServiceInstance> lbResponse = context.getLoadBalancerResponse();
+        if (start == 0 || lbResponse == null || !lbResponse.hasServer()) return;
+
+        ResponseData response = context.getClientResponse();
+        boolean failed = context.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null
+                    && response.getHttpStatus().is5xxServerError());
+
+        tracker.finished(lbResponse.getServer(), start, failed);
+    }
+
+    private static boolean isLongLived(RequestData request) {
+        HttpHeaders headers = request.getHeaders();
+        if (headers.getUpgrade() != null) return true;
+        if (headers.getAccept().contains(MediaType.TEXT_EVENT_STREAM)) return true;
+        String query = request.getUrl().getRawQuery();
+        return query != null && (query.startsWith("wait=") || query.contains("&wait="));
+    }
+}
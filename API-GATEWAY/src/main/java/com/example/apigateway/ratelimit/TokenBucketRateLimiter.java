@@ -0,0 +1,91 @@
+package com.example.apigateway.ratelimit;
+
+import com.example.apigateway.config.RateLimitProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// In-memory token buckets, one per (client, rule). Local to this gateway instance - no
+// Redis needed; with N instances behind a balancer each enforces its own share.
+// The map is a ConcurrentHashMap (internally striped); a bucket only locks itself, so
+// contention is limited to one client's concurrent requests. Idle buckets are swept.
+@Component
+public class TokenBucketRateLimiter {
+
+    private record BucketKey(String client, RateLimitProperties.Rule rule) {}
+
+    private static final class Bucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt;
+        private volatile long lastUsedAt;
+
+        Bucket(RateLimitProperties.Rule rule, long now) {
+            this.capacity = rule.getCapacity();
+            this.refillPerNano = rule.getRefillPerSecond() / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.lastUsedAt = now;
+        }
+
+        // 0 = allowed, otherwise nanos until one token is available
+        synchronized long tryAcquire(long now) {
+            lastUsedAt = now;
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+        }
+    }
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long idleMs;
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this.idleMs = properties.getIdleEvictionMs();
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long every = Math.max(1000, properties.getIdleEvictionMs() / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    // 0 if the request may pass, otherwise how long (ms) until it would. A bucket that never
+    // refills (refill-per-second 0) only comes back full once it has sat idle and been swept.
+    public long tryAcquire(String client, RateLimitProperties.Rule rule) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(new BucketKey(client, rule), k -> new Bucket(rule, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) return 0;
+        if (waitNanos == Long.MAX_VALUE) return Math.max(1, idleMs);
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> now - bucket.lastUsedAt > idleNanos);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
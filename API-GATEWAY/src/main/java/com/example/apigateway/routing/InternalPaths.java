@@ -0,0 +1,27 @@
+package com.example.apigateway.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// security.internal-urls: service endpoints that must never be reachable through the
+// gateway, whatever the caller's token. Listed with "*" in front as well, because the
+// discovery locator also routes /<service-id>/** to every registered service.
+@Component
+public class InternalPaths {
+
+    private final PathTrie<Boolean> rules = new PathTrie<>();
+
+    public InternalPaths(@Value("${security.internal-urls:}") List<String> internalUrls) {
+        for (String url : internalUrls) {
+            if (!url.isBlank()) {
+                rules.add(url.trim(), Boolean.TRUE);
+            }
+        }
+    }
+
+    public boolean isInternal(String path) {
+        return rules.matches(path);
+    }
+}
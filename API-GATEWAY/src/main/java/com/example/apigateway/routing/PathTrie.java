@@ -0,0 +1,89 @@
+package com.example.apigateway.routing;
+
+import java.util.Arrays;
+
+// Path rules compiled into a segment trie once, matched per request without allocation.
+// A rule matches its exact path and everything below it ("/login" matches /login and
+// /login/x, but not /loginXYZ). "*" matches exactly one segment. When several rules
+// match, the most specific (deepest) wins; at equal depth literal segments beat "*".
+// Matrix parameters are ignored: "/games/1;x/move" is matched as "/games/1/move", like the
+// route predicates and the downstream Tomcat see it, so ";..." cannot step around a rule.
+// Built at startup and never modified afterwards, so reads need no locking.
+public final class PathTrie<V> {
+
+    private static final class Node<V> {
+        final String segment;
+        final int depth;
+        Node<V>[] children;
+        V value;
+
+        @SuppressWarnings("unchecked")
+        Node(String segment, int depth) {
+            this.segment = segment;
+            this.depth = depth;
+            this.children = new Node[0];
+        }
+
+        Node<V> child(String segment) {
+            for (Node<V> child : children) {
+                if (child.segment.equals(segment)) return child;
+            }
+            Node<V> added = new Node<>(segment, depth + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = added;
+            // literals first, so they are tried before "*"
+            Arrays.sort(children, (a, b) -> Boolean.compare(a.segment.equals("*"), b.segment.equals("*")));
+            return added;
+        }
+    }
+
+    private final Node<V> root = new Node<>("", 0);
+
+    public PathTrie<V> add(String pattern, V value) {
+        Node<V> node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty() || segment.equals("**")) continue; // subtree is implied
+            node = node.child(segment);
+        }
+        node.value = value;
+        return this;
+    }
+
+    // Value of the most specific rule covering the path, or null
+    public V match(String path) {
+        Node<V> found = find(root, path, 0);
+        return found != null ? found.value : null;
+    }
+
+    public boolean matches(String path) {
+        return match(path) != null;
+    }
+
+    // Deepest node with a value along any branch the path matches. Every branch is tried:
+    // "/*/move" must beat "/games" for /games/move even though the literal is tried first.
+    // On equal depth the first found (literal) stays.
+    private Node<V> find(Node<V> node, String path, int pos) {
+        Node<V> best = node.value != null ? node : null;
+        int length = path.length();
+        while (pos < length && path.charAt(pos) == '/') pos++;
+        if (pos >= length) return best;
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) end = length;
+        int semicolon = path.indexOf(';', pos);
+        int segmentLength = (semicolon >= 0 && semicolon < end ? semicolon : end) - pos;
+
+        for (Node<V> child : node.children) {
+            boolean hit = child.segment.equals("*")
+                    || (child.segment.length() == segmentLength
+                        && path.regionMatches(pos, child.segment, 0, segmentLength));
+            if (hit) {
+                Node<V> found = find(child, path, end);
+                if (found != null && (best == null || found.depth > best.depth)) {
+                    best = found;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.apigateway.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// security.public-urls compiled once; shared by every filter that needs "is this public?"
+@Component
+public class PublicPaths {
+
+    private final PathTrie<Boolean> rules = new PathTrie<>();
+
+    public PublicPaths(@Value("${security.public-urls}") List<String> publicUrls) {
+        for (String url : publicUrls) {
+            rules.add(url.trim(), Boolean.TRUE);
+        }
+    }
+
+    public boolean isPublic(String path) {
+        return rules.matches(path);
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.apigateway.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Date;
 
 @Component
@@ -16,35 +17,31 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
+    // Built once - the key and the parser are immutable and thread-safe,
+    // so the event loop never rebuilds them per request
+    private JwtParser parser;
 
-    public boolean isTokenValid(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return !claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return false;
-        }
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
     }
 
-    public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object userId = claims.get("userId");
+    public record VerifiedToken(Long userId, long expiresAtMillis) {}
 
-        if (userId == null) {
-            throw new RuntimeException("userId not found in token");
+    // One parse per request: userId + expiry of a valid, unexpired token, otherwise null
+    public VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            if (expiration.before(new Date())) {
+                return null;
+            }
+            Object userId = claims.get("userId");
+            return userId != null ? new VerifiedToken(Long.valueOf(userId.toString()), expiration.getTime()) : null;
+        } catch (Exception e) {
+            return null;
         }
-
-        return Long.valueOf(userId.toString());
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
     }
 }
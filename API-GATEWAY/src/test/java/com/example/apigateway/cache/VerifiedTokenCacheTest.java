@@ -0,0 +1,84 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    // Counts verifications; "token-<n>" is user n, valid until expiresAtMillis
+    private static final class StubJwtUtil extends JwtUtil {
+        final Map<String, Integer> verifications = new HashMap<>();
+        long expiresAtMillis = System.currentTimeMillis() + 60_000;
+
+        @Override
+        public VerifiedToken verify(String token) {
+            verifications.merge(token, 1, Integer::sum);
+            if (!token.startsWith("token-")) return null;
+            return new VerifiedToken(Long.valueOf(token.substring(6)), expiresAtMillis);
+        }
+    }
+
+    private final StubJwtUtil jwtUtil = new StubJwtUtil();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, registry, 1000);
+
+        assertEquals(7L, cache.authenticate("token-7"));
+        assertEquals(7L, cache.authenticate("token-7"));
+        assertEquals(1, jwtUtil.verifications.get("token-7"));
+    }
+
+    @Test
+    void invalidTokenIsNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, registry, 1000);
+
+        assertNull(cache.authenticate("garbage"));
+        assertNull(cache.authenticate("garbage"));
+        assertEquals(2, jwtUtil.verifications.get("garbage"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expiredEntryIsVerifiedAgain() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, registry, 1000);
+        jwtUtil.expiresAtMillis = System.currentTimeMillis() - 1; // cached, but already past its expiry
+
+        cache.authenticate("token-7");
+        cache.authenticate("token-7");
+
+        assertEquals(2, jwtUtil.verifications.get("token-7"));
+    }
+
+    @Test
+    void sizeIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, registry, 32); // 2 per stripe
+
+        for (int i = 0; i < 500; i++) {
+            cache.authenticate("token-" + i);
+        }
+
+        assertTrue(cache.size() <= 32, "size " + cache.size());
+        assertTrue(registry.get("cache.evictions").counter().count() >= 500 - 32);
+    }
+
+    @Test
+    void zeroSizeDisablesCaching() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, registry, 0);
+
+        cache.authenticate("token-7");
+        cache.authenticate("token-7");
+
+        assertEquals(2, jwtUtil.verifications.get("token-7"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorrelationIdFilterTest {
+
+    @Test
+    void acceptsTokenLikeIds() {
+        assertTrue(CorrelationIdFilter.isSafe("3f9a0c1e7b2d4a65"));
+        assertTrue(CorrelationIdFilter.isSafe("req-42_retry.1"));
+        assertTrue(CorrelationIdFilter.isSafe("a".repeat(64)));
+    }
+
+    @Test
+    void rejectsIdsThatCouldForgeLogLines() {
+        assertFalse(CorrelationIdFilter.isSafe(null));
+        assertFalse(CorrelationIdFilter.isSafe(""));
+        assertFalse(CorrelationIdFilter.isSafe("a".repeat(65)));
+        assertFalse(CorrelationIdFilter.isSafe("abc\r\n2026-10-19 INFO forged"));
+        assertFalse(CorrelationIdFilter.isSafe("abc def"));
+        assertFalse(CorrelationIdFilter.isSafe("\"},{\"level\":\"ERROR\""));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstanceLatencyTrackerTest {
+
+    private final InstanceLatencyTracker tracker = new InstanceLatencyTracker(10_000, 50, 2_000);
+
+    private static ServiceInstance instance(String serviceId, int port) {
+        return new DefaultServiceInstance(serviceId + "-" + port, serviceId, "10.0.0.1", port, false);
+    }
+
+    @Test
+    void inFlightRequestsRaiseTheCost() {
+        ServiceInstance a = instance("USER-SERVICE", 8081);
+        double idle = tracker.cost(a);
+
+        tracker.started(a);
+
+        assertEquals(2 * idle, tracker.cost(a), idle / 100);
+    }
+
+    @Test
+    void failureCountsAsSlow() {
+        ServiceInstance a = instance("USER-SERVICE", 8081);
+        ServiceInstance b = instance("USER-SERVICE", 8082);
+        tracker.started(a);
+        tracker.started(b);
+
+        tracker.finished(a, System.nanoTime(), true);
+        tracker.finished(b, System.nanoTime(), false);
+
+        assertTrue(tracker.cost(a) > tracker.cost(b));
+    }
+
+    @Test
+    void retainOnlyDropsDepartedInstancesOfThatServiceOnly() {
+        ServiceInstance a = instance("USER-SERVICE", 8081);
+        ServiceInstance gone = instance("USER-SERVICE", 8082);
+        ServiceInstance other = instance("GAME-SERVICE", 8083);
+        tracker.cost(a);
+        tracker.cost(gone);
+        tracker.cost(other);
+
+        tracker.retainOnly(List.of(a));
+
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void finishAfterPruneDoesNotResurrectTheInstance() {
+        ServiceInstance a = instance("USER-SERVICE", 8081);
+        ServiceInstance gone = instance("USER-SERVICE", 8082);
+        tracker.started(gone);
+        tracker.retainOnly(List.of(a));
+
+        tracker.finished(gone, System.nanoTime(), false);
+
+        assertEquals(0, tracker.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.apigateway.ratelimit;
+
+import com.example.apigateway.config.RateLimitProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new RateLimitProperties());
+
+    @AfterEach
+    void stop() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void burstUpToCapacityThenWait() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule("/games", 3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", rule));
+        }
+        long waitMs = limiter.tryAcquire("alice", rule);
+        assertTrue(waitMs > 0 && waitMs <= 1000, "wait " + waitMs);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule("/games", 1, 200);
+
+        assertEquals(0, limiter.tryAcquire("alice", rule));
+        assertTrue(limiter.tryAcquire("alice", rule) > 0);
+        Thread.sleep(20); // 200/s = one token every 5 ms
+        assertEquals(0, limiter.tryAcquire("alice", rule));
+    }
+
+    @Test
+    void bucketThatNeverRefillsWaitsForIdleEviction() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule("/signup", 1, 0);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", rule));
+        assertEquals(new RateLimitProperties().getIdleEvictionMs(), limiter.tryAcquire("ip:10.0.0.1", rule));
+    }
+
+    @Test
+    void bucketsArePerClientAndRule() {
+        RateLimitProperties.Rule moves = new RateLimitProperties.Rule("/games/*/move", 1, 1);
+        RateLimitProperties.Rule login = new RateLimitProperties.Rule("/login", 1, 1);
+
+        assertEquals(0, limiter.tryAcquire("alice", moves));
+        assertTrue(limiter.tryAcquire("alice", moves) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", moves));
+        assertEquals(0, limiter.tryAcquire("alice", login));
+        assertEquals(3, limiter.size());
+    }
+}
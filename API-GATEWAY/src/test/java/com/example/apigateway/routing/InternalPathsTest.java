@@ -0,0 +1,47 @@
+package com.example.apigateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InternalPathsTest {
+
+    // security.internal-urls from application.yaml
+    private final InternalPaths paths = new InternalPaths(
+            List.of("/admin", "/*/admin", "/*/actuator", "/game/create", "/*/game/create"));
+
+    @Test
+    void gameCreationIsInternalOnBothRoutes() {
+        assertTrue(paths.isInternal("/game/create"));
+        assertTrue(paths.isInternal("/game-service/game/create"));
+    }
+
+    @Test
+    void batchCreationIsCoveredByTheSameRule() {
+        assertTrue(paths.isInternal("/game/create/batch"));
+        assertTrue(paths.isInternal("/game-service/game/create/batch"));
+    }
+
+    @Test
+    void downstreamActuatorIsInternal() {
+        assertTrue(paths.isInternal("/game-service/actuator/metrics"));
+        assertTrue(paths.isInternal("/matchmaking-service/actuator/health"));
+    }
+
+    @Test
+    void matrixParametersDoNotEscapeARule() {
+        assertTrue(paths.isInternal("/game-service/actuator;x/metrics"));
+        assertTrue(paths.isInternal("/game-service/actuator;x/spans"));
+        assertTrue(paths.isInternal("/game-service;x/game/create"));
+    }
+
+    @Test
+    void playerEndpointsAreNotInternal() {
+        assertFalse(paths.isInternal("/game/ws/info"));
+        assertFalse(paths.isInternal("/games/42/move"));
+        assertFalse(paths.isInternal("/matchmaking/join"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.apigateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathTrieTest {
+
+    @Test
+    void ruleCoversItsPathAndSubtree() {
+        PathTrie<String> trie = new PathTrie<String>().add("/login", "login");
+
+        assertEquals("login", trie.match("/login"));
+        assertEquals("login", trie.match("/login/"));
+        assertEquals("login", trie.match("/login/google/callback"));
+    }
+
+    @Test
+    void prefixOfASegmentIsNotAMatch() {
+        PathTrie<String> trie = new PathTrie<String>().add("/login", "login");
+
+        assertFalse(trie.matches("/loginXYZ"));
+        assertFalse(trie.matches("/logi"));
+        assertFalse(trie.matches("/"));
+    }
+
+    @Test
+    void matrixParametersDoNotHideASegment() {
+        PathTrie<String> trie = new PathTrie<String>()
+                .add("/games/*/move", "move")
+                .add("/games", "games");
+
+        assertEquals("move", trie.match("/games/1;x/move"));
+        assertEquals("move", trie.match("/games;a=b/1/move;c"));
+        assertEquals("games", trie.match("/games;x"));
+    }
+
+    @Test
+    void starMatchesExactlyOneSegment() {
+        PathTrie<String> trie = new PathTrie<String>().add("/*/admin", "admin");
+
+        assertTrue(trie.matches("/game-service/admin"));
+        assertTrue(trie.matches("/game-service/admin/games/export"));
+        assertFalse(trie.matches("/admin"));
+        assertFalse(trie.matches("/a/b/admin"));
+    }
+
+    @Test
+    void doubleStarIsTheImpliedSubtree() {
+        PathTrie<String> trie = new PathTrie<String>().add("/games/**", "games");
+
+        assertEquals("games", trie.match("/games"));
+        assertEquals("games", trie.match("/games/42/move"));
+    }
+
+    @Test
+    void mostSpecificRuleWins() {
+        PathTrie<String> trie = new PathTrie<String>()
+                .add("/", "default")
+                .add("/games", "games")
+                .add("/games/*/move", "move");
+
+        assertEquals("default", trie.match("/users/7"));
+        assertEquals("games", trie.match("/games/42"));
+        assertEquals("move", trie.match("/games/42/move"));
+    }
+
+    @Test
+    void literalBeatsStarAtTheSameDepth() {
+        PathTrie<String> trie = new PathTrie<String>()
+                .add("/*/health", "any")
+                .add("/actuator/health", "actuator");
+
+        assertEquals("actuator", trie.match("/actuator/health"));
+        assertEquals("any", trie.match("/game-service/health"));
+    }
+
+    @Test
+    void deeperStarRuleBeatsShallowerLiteral() {
+        PathTrie<String> trie = new PathTrie<String>()
+                .add("/games", "games")
+                .add("/*/move", "move");
+
+        assertEquals("move", trie.match("/games/move"));
+        assertEquals("games", trie.match("/games/42"));
+    }
+
+    @Test
+    void emptyTrieMatchesNothing() {
+        assertNull(new PathTrie<String>().match("/anything"));
+    }
+}
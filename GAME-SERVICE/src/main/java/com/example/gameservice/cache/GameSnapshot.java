@@ -0,0 +1,83 @@
+package com.example.gameservice.cache;
+
+import com.example.gameservice.dto.MoveResponse;
+import com.example.gameservice.entity.Game;
+import com.example.gameservice.entity.GameStatus;
+import com.example.gameservice.entity.GameType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable read model of one game as served by GET /games/{gameId}.
+// Patching returns a new snapshot, so readers never see a half-applied move.
+public record GameSnapshot(
+        Long gameId,
+        Long player1Id,
+        Long player2Id,
+        GameStatus status,
+        GameType gameType,
+        Integer currentPly,
+        String fen,
+        Integer whiteTime,
+        Integer blackTime,
+        LocalDateTime lastMoveTimestamp,
+        List<MoveResponse> moves // index i holds ply i + 1
+) {
+
+    public static GameSnapshot of(Game game, List<MoveResponse> moves) {
+        // moves and game are read separately - never expose plies the game row doesn't know yet
+        List<MoveResponse> history = moves.size() > game.getCurrentPly()
+                ? moves.subList(0, game.getCurrentPly())
+                : moves;
+        return new GameSnapshot(
+                game.getId(),
+                game.getPlayer1Id(),
+                game.getPlayer2Id(),
+                game.getStatus(),
+                game.getGameType(),
+                game.getCurrentPly(),
+                game.getFenCurrent(),
+                game.getWhiteTime(),
+                game.getBlackTime(),
+                game.getLastMoveTimestamp(),
+                List.copyOf(history)
+        );
+    }
+
+    // Status / clock change without a new move (resign, draw, timeout)
+    public GameSnapshot withGameState(Game game) {
+        return new GameSnapshot(
+                gameId, player1Id, player2Id,
+                game.getStatus(), gameType, game.getCurrentPly(), game.getFenCurrent(),
+                game.getWhiteTime(), game.getBlackTime(), game.getLastMoveTimestamp(),
+                moves
+        );
+    }
+
+    // Returns null when the move does not directly follow this snapshot (caller invalidates)
+    public GameSnapshot withMove(Game game, MoveResponse move) {
+        if (move.getCurrentPly() == null || move.getCurrentPly() != currentPly + 1) {
+            return null;
+        }
+        List<MoveResponse> history = new ArrayList<>(moves.size() + 1);
+        history.addAll(moves);
+        history.add(move);
+        return new GameSnapshot(
+                gameId, player1Id, player2Id,
+                game.getStatus(), gameType, game.getCurrentPly(), game.getFenCurrent(),
+                game.getWhiteTime(), game.getBlackTime(), game.getLastMoveTimestamp(),
+                List.copyOf(history)
+        );
+    }
+
+    // One validator per game state and page: since/limit select different moves from the
+    // same state, so a 304 for one page must never be taken for another
+    public String etag(Integer since, Integer limit) {
+        String tag = gameId + "-" + currentPly + "-" + status.name();
+        if (since != null || limit != null) {
+            tag += "-" + (since != null ? since : "") + "-" + (limit != null ? limit : "");
+        }
+        return "\"" + tag + "\"";
+    }
+}
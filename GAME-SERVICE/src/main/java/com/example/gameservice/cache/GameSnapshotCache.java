@@ -0,0 +1,160 @@
+package com.example.gameservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Per-game read-through cache for GET /games/{gameId}.
+// Bounded LRU (access order); GameService patches entries in place on every state change.
+// ttl-ms only bounds staleness if writes ever reach a game through another instance.
+@Component
+public class GameSnapshotCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private record Entry(GameSnapshot snapshot, long loadedAt) {}
+
+    // Games with a loader running outside the lock. Every write to such a game bumps
+    // writes, whether or not it had an entry to patch, so the loader can tell that what it
+    // read may predate the write. Guarded by entries, like the map itself.
+    private static final class Loads {
+        int running;
+        long writes;
+    }
+
+    private final Map<Long, Loads> loads = new HashMap<>();
+
+    public GameSnapshotCache(
+            MeterRegistry registry,
+            @Value("${game.snapshot-cache.max-size:10000}") int maxSize,
+            @Value("${game.snapshot-cache.ttl-ms:30000}") long ttlMs
+    ) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > GameSnapshotCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("cache.gets").tag("cache", "gameSnapshots").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "gameSnapshots").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", "gameSnapshots").register(registry);
+        Gauge.builder("cache.size", this, GameSnapshotCache::size).tag("cache", "gameSnapshots").register(registry);
+    }
+
+    // =========================
+    // READ-THROUGH
+    // =========================
+    // The loader runs outside the lock. If the game was written while it ran, the loaded
+    // snapshot is not cached: it may be older than the write, and with no entry to patch
+    // it would otherwise be served until the TTL runs out.
+    public GameSnapshot get(Long gameId, Supplier<GameSnapshot> loader) {
+        Loads load;
+        long writesSeen;
+        synchronized (entries) {
+            Entry entry = entries.get(gameId);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+                return entry.snapshot();
+            }
+            load = loads.computeIfAbsent(gameId, id -> new Loads());
+            load.running++;
+            writesSeen = load.writes;
+        }
+
+        misses.increment();
+        GameSnapshot loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loadDone(gameId, load);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            loadDone(gameId, load);
+            if (load.writes != writesSeen) {
+                Entry current = entries.get(gameId);
+                return current != null ? current.snapshot() : loaded;
+            }
+            entries.put(gameId, new Entry(loaded, System.nanoTime()));
+        }
+        return loaded;
+    }
+
+    // caller holds the lock
+    private void loadDone(Long gameId, Loads load) {
+        if (--load.running == 0) {
+            loads.remove(gameId);
+        }
+    }
+
+    // =========================
+    // WRITE PATH
+    // =========================
+    // Applies the change to a cached snapshot, if any. A null result from the patch drops the entry.
+    public void patch(Long gameId, UnaryOperator<GameSnapshot> change) {
+        synchronized (entries) {
+            written(gameId);
+            Entry entry = entries.get(gameId);
+            if (entry == null) return;
+
+            GameSnapshot patched = change.apply(entry.snapshot());
+            if (patched == null) {
+                entries.remove(gameId);
+            } else {
+                entries.put(gameId, new Entry(patched, System.nanoTime()));
+            }
+        }
+    }
+
+    public void put(GameSnapshot snapshot) {
+        synchronized (entries) {
+            written(snapshot.gameId());
+            entries.put(snapshot.gameId(), new Entry(snapshot, System.nanoTime()));
+        }
+    }
+
+    public void invalidate(Long gameId) {
+        synchronized (entries) {
+            written(gameId);
+            entries.remove(gameId);
+        }
+    }
+
+    // caller holds the lock
+    private void written(Long gameId) {
+        Loads load = loads.get(gameId);
+        if (load != null) {
+            load.writes++;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
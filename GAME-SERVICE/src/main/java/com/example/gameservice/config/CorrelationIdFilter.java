@@ -0,0 +1,73 @@
+package com.example.gameservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Tags every log line written while serving a request with its correlation id and the
+// calling user (MDC "correlationId" / "userId", see logging.pattern.correlation).
+// The id normally comes from the gateway; direct calls (or ids that fail the gateway's
+// isSafe check) get a fresh one. Echoed back. X-USER-ID is only logged if it is a number.
+// Same filter in every servlet service (separate builds, no shared module) - keep in sync.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+    public static final String MDC_USER = "userId";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        String id = request.getHeader(HEADER);
+        if (!isSafe(id)) {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+
+        MDC.put(MDC_KEY, id);
+        String userId = request.getHeader("X-USER-ID");
+        if (userId != null && isNumber(userId)) {
+            MDC.put(MDC_USER, userId);
+        }
+        response.setHeader(HEADER, id);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+            MDC.remove(MDC_USER);
+        }
+    }
+
+    // 1-64 of [A-Za-z0-9._-]: anything else (CR/LF, quotes, spaces) could forge or break log lines
+    static boolean isSafe(String id) {
+        if (id == null || id.isEmpty() || id.length() > 64) return false;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty() || value.length() > 19) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+}
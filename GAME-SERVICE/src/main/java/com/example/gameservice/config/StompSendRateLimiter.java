@@ -0,0 +1,69 @@
+package com.example.gameservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Token bucket on STOMP SEND frames (moves over /app/game/{id}/move). The gateway's
+// /games/*/move limit only sees the WebSocket handshake, so frames on an open socket are
+// limited here, with the same defaults. One bucket per WebSocket session, kept in the
+// session attributes, so it goes away with the session. Frames over the limit are dropped.
+@Slf4j
+@Component
+public class StompSendRateLimiter implements ChannelInterceptor {
+
+    private static final String BUCKET = "stomp.sendBucket";
+
+    private final int capacity;
+    private final double refillPerNano;
+
+    public StompSendRateLimiter(
+            @Value("${game.stomp.send-limit.capacity:10}") int capacity,
+            @Value("${game.stomp.send-limit.refill-per-second:5}") double refillPerSecond
+    ) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+    }
+
+    private final class Bucket {
+        private double tokens = capacity;
+        private long refilledAt = System.nanoTime();
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        Map<String, Object> session = headers.getSessionAttributes();
+        if (session == null) return message;
+
+        // created on CONNECT, before the session can send anything, so SENDs only read it
+        if (headers.getMessageType() == SimpMessageType.CONNECT) {
+            session.put(BUCKET, new Bucket());
+            return message;
+        }
+        if (headers.getMessageType() != SimpMessageType.MESSAGE) return message; // SEND frames
+
+        Bucket bucket = (Bucket) session.get(BUCKET);
+        if (bucket == null || bucket.tryAcquire()) return message;
+
+        log.debug("STOMP SEND to {} dropped, session {} over the rate limit",
+                headers.getDestination(), headers.getSessionId());
+        return null;
+    }
+}
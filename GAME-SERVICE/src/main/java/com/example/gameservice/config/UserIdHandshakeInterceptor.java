@@ -0,0 +1,35 @@
+package com.example.gameservice.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+// Remembers who opened the WebSocket. X-USER-ID on the handshake is set by the gateway from
+// the JWT; STOMP frame headers are whatever the client typed, so checks that need the caller's
+// identity read this session attribute instead.
+public class UserIdHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String USER_ID = "userId";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String userId = request.getHeaders().getFirst("X-USER-ID");
+        if (userId != null) {
+            try {
+                attributes.put(USER_ID, Long.valueOf(userId));
+            } catch (NumberFormatException ignored) {
+                // not from the gateway - the session simply has no identity
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.gameservice.config;
 
+import com.example.gameservice.spectator.PlayerTopicGuard;
+import com.example.gameservice.tracing.StompTracing;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -8,18 +12,37 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompTracing stompTracing;
+    private final PlayerTopicGuard playerTopicGuard;
+    private final StompSendRateLimiter stompSendRateLimiter;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
+        config.configureBrokerChannel().interceptors(stompTracing.broker());
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*") // Allow all origins for dev
+                .addInterceptors(new UserIdHandshakeInterceptor())
                 .withSockJS();
     }
+
+    // trace context in and out of STOMP frames (see StompTracing); players-only game topics;
+    // per-session limit on SEND frames
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompTracing.inbound(), playerTopicGuard, stompSendRateLimiter);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompTracing.outbound());
+    }
 }
@@ -1,23 +1,33 @@
 package com.example.gameservice.controller;
 
+import com.example.gameservice.cache.GameSnapshot;
+import com.example.gameservice.dto.GameCreateRequest;
 import com.example.gameservice.dto.GameResponse;
 import com.example.gameservice.dto.MoveRequest;
 import com.example.gameservice.dto.MoveResponse;
 import com.example.gameservice.entity.Game;
 import com.example.gameservice.entity.GameType;
 import com.example.gameservice.service.GameService;
+import com.example.gameservice.spectator.ViewerRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class GameController {
 
     private final GameService gameService;
+    private final ViewerRegistry viewerRegistry;
 
     // =================================================
     // USED BY MATCHMAKING (OPEN FEIGN)
     // =================================================
+    // Service-to-service only: the gateway never routes /game/create (security.internal-urls)
     @PostMapping("/game/create")
     public Long createGameForMatchmaking(
             @RequestParam Long whitePlayerId,
@@ -34,6 +44,15 @@ public class GameController {
         return game.getId();
     }
 
+    // Pairing bursts: many games in one call, ids returned in request order
+    // (null for a match whose game could not be created). Internal, like /game/create.
+    @PostMapping("/game/create/batch")
+    public List<Long> createGamesForMatchmaking(
+            @RequestBody List<GameCreateRequest> requests
+    ) {
+        return gameService.createGamesFromMatchmaking(requests);
+    }
+
     // =========================
     // CREATE GAME
     // =========================
@@ -52,12 +71,57 @@ public class GameController {
     // =========================
     // GET GAME
     // =========================
+    // since = ply the client already has -> only newer moves are returned
+    // limit = page size for long games (follow nextSincePly while hasMoreMoves)
+    // If-None-Match with the last ETag for the same since/limit -> 304
     @GetMapping("/games/{gameId}")
-    public GameResponse getGame(
+    public ResponseEntity<GameResponse> getGame(
             @PathVariable Long gameId,
-            @RequestHeader("X-USER-ID") Long userId
+            @RequestHeader("X-USER-ID") Long userId,
+            @RequestParam(required = false) Integer since,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
     ) {
-        return gameService.getGameDetails(gameId, userId);
+        GameSnapshot snapshot = gameService.getGameForPlayer(gameId, userId);
+
+        String etag = snapshot.etag(since, limit);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(gameService.getGameDetails(snapshot, since, limit));
+    }
+
+    // =========================
+    // SPECTATE (READ-ONLY)
+    // =========================
+    // Anyone may watch; live updates come coalesced on /topic/spectate/{gameId}
+    @GetMapping("/games/{gameId}/spectate")
+    public ResponseEntity<GameResponse> spectateGame(
+            @PathVariable Long gameId,
+            @RequestParam(required = false) Integer since,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
+    ) {
+        GameSnapshot snapshot = gameService.getGameForSpectator(gameId);
+
+        String etag = snapshot.etag(since, limit);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(gameService.getGameDetails(snapshot, since, limit));
+    }
+
+    @GetMapping("/games/{gameId}/viewers")
+    public long getViewerCount(@PathVariable Long gameId) {
+        return viewerRegistry.getViewerCount(gameId);
     }
 
     // =========================
@@ -0,0 +1,84 @@
+package com.example.gameservice.controller;
+
+import com.example.gameservice.entity.GameStatus;
+import com.example.gameservice.export.ArchiveFormat;
+import com.example.gameservice.service.GameExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class GameExportController {
+
+    public static final String EXPORT_TOKEN_HEADER = "X-Export-Token";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GameExportService gameExportService;
+
+    // Shared secret for exports; empty = exports disabled
+    @Value("${game.export.token:}")
+    private String exportToken;
+
+    // =================================================
+    // ADMIN / ANALYTICS EXPORT
+    // Needs X-Export-Token = game.export.token. The gateway also refuses /admin/** and
+    // /*/admin/** (security.internal-urls), so a player JWT never reaches this.
+    // Written on the request thread straight into the response: no async timeout to
+    // outlive, however long the cursor runs.
+    // =================================================
+    @GetMapping("/admin/games/export")
+    public void exportGames(
+            @RequestHeader(value = EXPORT_TOKEN_HEADER, required = false) String token,
+            @RequestParam(defaultValue = "NDJSON") ArchiveFormat format,
+            @RequestParam(required = false) List<GameStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "true") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!isAuthorized(token)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        List<GameStatus> statuses =
+                (status == null || status.isEmpty()) ? GameExportService.FINISHED_STATUSES : status;
+
+        String fileName = "games-after-" + afterId + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType());
+
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE)
+                : new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+        try (out) {
+            gameExportService.export(format, statuses, from, to, afterId, out);
+        }
+    }
+
+    // constant-time compare; no configured token means nobody gets in
+    private boolean isAuthorized(String token) {
+        if (exportToken == null || exportToken.isBlank() || token == null) return false;
+        return MessageDigest.isEqual(
+                exportToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
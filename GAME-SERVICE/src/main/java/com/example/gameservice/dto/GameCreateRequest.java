@@ -0,0 +1,17 @@
+package com.example.gameservice.dto;
+
+import com.example.gameservice.entity.GameType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of POST /game/create/batch (same fields as /game/create)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameCreateRequest {
+    private Long whitePlayerId;
+    private Long blackPlayerId;
+    private Long matchId;
+    private GameType gameType;
+}
@@ -1,5 +1,6 @@
 package com.example.gameservice.dto;
 
+import com.example.gameservice.cache.GameSnapshot;
 import com.example.gameservice.entity.Game;
 import lombok.Data;
 import java.util.List;
@@ -21,6 +22,12 @@ public class GameResponse {
 
     private List<MoveResponse> moves;
 
+    // Move history paging: moves holds plies (sincePly, nextSincePly].
+    // hasMoreMoves = true -> request again with since=nextSincePly
+    private Integer sincePly;
+    private Integer nextSincePly;
+    private Boolean hasMoreMoves;
+
     public static GameResponse from(Game game) {
         GameResponse res = new GameResponse();
         res.setGameId(game.getId());
@@ -37,4 +44,21 @@ public class GameResponse {
 
         return res;
     }
+
+    public static GameResponse from(GameSnapshot snapshot) {
+        GameResponse res = new GameResponse();
+        res.setGameId(snapshot.gameId());
+        res.setPlayer1Id(snapshot.player1Id());
+        res.setPlayer2Id(snapshot.player2Id());
+        res.setStatus(snapshot.status().name());
+        res.setGameType(snapshot.gameType().name());
+
+        res.setCurrentPly(snapshot.currentPly());
+        res.setFen(snapshot.fen());
+        res.setWhiteTime(snapshot.whiteTime());
+        res.setBlackTime(snapshot.blackTime());
+        res.setLastMoveTimestamp(snapshot.lastMoveTimestamp() != null ? snapshot.lastMoveTimestamp().toString() : null);
+
+        return res;
+    }
 }
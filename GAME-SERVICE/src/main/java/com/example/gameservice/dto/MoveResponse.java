@@ -1,5 +1,6 @@
 package com.example.gameservice.dto;
 
+import com.example.gameservice.entity.Move;
 import lombok.Data;
 
 @Data
@@ -22,5 +23,15 @@ public class MoveResponse {
     // For Draw Offers
     private String drawOfferBy; // "userId" or null
 
-
+    // History entry as returned by GET /games/{gameId}
+    public static MoveResponse fromHistory(Move move) {
+        MoveResponse mr = new MoveResponse();
+        mr.setGameId(move.getGameId());
+        mr.setUci(move.getUci());
+        mr.setSan(move.getSan() != null ? move.getSan() : move.getUci()); // Fallback to UCI
+        mr.setFen(move.getFenAfter());
+        mr.setCurrentPly(move.getPly());
+        // mr.setNextTurn, etc. can be inferred or left null if not critical for history
+        return mr;
+    }
 }
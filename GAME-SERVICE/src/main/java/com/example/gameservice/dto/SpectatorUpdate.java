@@ -0,0 +1,16 @@
+package com.example.gameservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sent on /topic/spectate/{gameId}. Updates are coalesced, so a spectator may skip plies:
+// if move.currentPly jumps, fetch GET /games/{gameId}/spectate?since=<last ply seen>.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpectatorUpdate {
+
+    private MoveResponse move;
+    private long viewers;
+}
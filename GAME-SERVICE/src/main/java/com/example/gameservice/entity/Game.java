@@ -6,12 +6,18 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "games")
+@Table(name = "games", uniqueConstraints = {
+    // one game per match, enforced here because two /game/create retries can race
+    @UniqueConstraint(name = "uk_games_match_id", columnNames = "match_id")
+}, indexes = {
+    // the timeout scan reads only games whose clock has run out
+    @Index(name = "idx_games_status_flag_at", columnList = "status, flag_at")
+})
 @Data
 public class Game {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     // White player
@@ -22,8 +28,8 @@ public class Game {
     @Column(name = "player2_id", nullable = false)
     private Long player2Id;
 
-    // Link to Match
-    @Column(name = "match_id", nullable = false)
+    // Link to Match (null for manual games)
+    @Column(name = "match_id")
     private Long matchId;
 
     @Enumerated(EnumType.STRING)
@@ -57,6 +63,17 @@ public class Game {
     @Column(name = "last_move_timestamp")
     private LocalDateTime lastMoveTimestamp;
 
+    // When the side to move runs out of time if it does not move; null when no clock runs
+    // (finished, or untimed). Kept in step on every save, see updateFlagAt.
+    @Column(name = "flag_at")
+    private LocalDateTime flagAt;
+
+    // Optimistic lock: a move, resign or loss on time saved from a stale read fails instead
+    // of overwriting the newer state (GameRepo.finishOnTime bumps it too)
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     private static final String START_FEN =
             "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
 
@@ -90,10 +107,20 @@ public class Game {
         if (this.lastMoveTimestamp == null) {
             this.lastMoveTimestamp = LocalDateTime.now();
         }
+        updateFlagAt();
     }
 
     @PreUpdate
     void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        updateFlagAt();
+    }
+
+    public void updateFlagAt() {
+        Integer remaining = currentPly % 2 == 0 ? whiteTime : blackTime;
+        this.flagAt = status == GameStatus.IN_PROGRESS && gameType != GameType.STANDARD
+                && remaining != null && lastMoveTimestamp != null
+                ? lastMoveTimestamp.plusSeconds(remaining)
+                : null;
     }
 }
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public class Move {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     // reference only by ID
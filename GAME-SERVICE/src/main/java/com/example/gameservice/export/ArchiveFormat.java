@@ -0,0 +1,23 @@
+package com.example.gameservice.export;
+
+public enum ArchiveFormat {
+
+    PGN("application/x-chess-pgn", "pgn"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ArchiveFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gameservice.export;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One game row plus its moves, filled while the export cursor walks games JOIN moves.
+// Only the game currently being written is held in memory.
+@Data
+public class ArchivedGame {
+
+    private Long gameId;
+    private Long matchId;
+    private Long player1Id;
+    private Long player2Id;
+    private String status;
+    private String gameType;
+    private String finalFen;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    // SAN when recorded, UCI otherwise (same fallback as getGameDetails)
+    private final List<String> moves = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.example.gameservice.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface GameArchiveWriter {
+
+    void write(ArchivedGame game, OutputStream out) throws IOException;
+
+    static GameArchiveWriter forFormat(ArchiveFormat format) {
+        return switch (format) {
+            case PGN -> new PgnArchiveWriter();
+            case NDJSON -> new NdjsonArchiveWriter();
+        };
+    }
+}
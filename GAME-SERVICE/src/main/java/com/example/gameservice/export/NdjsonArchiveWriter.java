@@ -0,0 +1,21 @@
+package com.example.gameservice.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonArchiveWriter implements GameArchiveWriter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Override
+    public void write(ArchivedGame game, OutputStream out) throws IOException {
+        out.write(MAPPER.writeValueAsBytes(game));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.gameservice.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+public class PgnArchiveWriter implements GameArchiveWriter {
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    @Override
+    public void write(ArchivedGame game, OutputStream out) throws IOException {
+        String result = result(game.getStatus());
+
+        StringBuilder pgn = new StringBuilder(256 + game.getMoves().size() * 8);
+        tag(pgn, "Event", "IndiChess " + game.getGameType());
+        tag(pgn, "Site", "IndiChess");
+        tag(pgn, "Date", game.getCreatedAt() != null ? PGN_DATE.format(game.getCreatedAt()) : "????.??.??");
+        tag(pgn, "White", String.valueOf(game.getPlayer1Id()));
+        tag(pgn, "Black", String.valueOf(game.getPlayer2Id()));
+        tag(pgn, "Result", result);
+        tag(pgn, "GameId", String.valueOf(game.getGameId()));
+        if (game.getMatchId() != null) {
+            tag(pgn, "MatchId", String.valueOf(game.getMatchId()));
+        }
+        pgn.append('\n');
+
+        for (int i = 0; i < game.getMoves().size(); i++) {
+            if (i % 2 == 0) {
+                pgn.append(i / 2 + 1).append(". ");
+            }
+            pgn.append(game.getMoves().get(i)).append(' ');
+        }
+        pgn.append(result).append("\n\n");
+
+        out.write(pgn.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void tag(StringBuilder pgn, String name, String value) {
+        pgn.append('[').append(name).append(" \"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\"]\n");
+    }
+
+    private static String result(String status) {
+        if (status == null) return "*";
+        switch (status) {
+            case "WHITE_WON": return "1-0";
+            case "BLACK_WON": return "0-1";
+            case "DRAW": return "1/2-1/2";
+            default: return "*";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.gameservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Where the time in GameService.makeMove goes, exposed under /actuator/metrics
+// (percentiles are configured in management.metrics.distribution):
+//   game.move        whole call, tag outcome=ok|rejected
+//   game.move.stage  tag stage=load|validate|status|persist|broadcast
+@Component
+public class MoveMetrics {
+
+    public enum Stage {
+        LOAD,       // game row
+        VALIDATE,   // status / turn checks and applying the move to the position
+        STATUS,     // move history + checkmate / stalemate / draw detection
+        PERSIST,    // move + game rows and the snapshot cache
+        BROADCAST   // STOMP send to players, spectator hand-off
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Timer ok;
+    private final Timer rejected;
+
+    public MoveMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("game.move.stage")
+                    .description("Time spent in one stage of a move")
+                    .tag("stage", stage.name().toLowerCase())
+                    .register(registry));
+        }
+        this.ok = move(registry, "ok");
+        this.rejected = move(registry, "rejected");
+    }
+
+    private static Timer move(MeterRegistry registry, String outcome) {
+        return Timer.builder("game.move")
+                .description("Time to process a move end to end")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public void record(Stage stage, long nanos) {
+        stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void move(long startNanos, boolean accepted) {
+        (accepted ? ok : rejected).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
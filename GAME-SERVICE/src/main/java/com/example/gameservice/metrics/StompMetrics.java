@@ -0,0 +1,47 @@
+package com.example.gameservice.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+// Depth of the STOMP channel queues. Every broker send (moves, spectator updates,
+// timeouts) waits in clientOutbound until a pool thread writes it to the socket, so a
+// growing outbound queue is where broadcast latency hides.
+//   stomp.channel.queue        tag channel=inbound|outbound
+//   stomp.channel.active       busy threads, same tags
+@Component
+public class StompMetrics implements MeterBinder {
+
+    private final TaskExecutor inbound;
+    private final TaskExecutor outbound;
+
+    public StompMetrics(@Qualifier("clientInboundChannelExecutor") TaskExecutor inbound,
+                        @Qualifier("clientOutboundChannelExecutor") TaskExecutor outbound) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "inbound", inbound);
+        bind(registry, "outbound", outbound);
+    }
+
+    // only the default pool-backed channels have a queue to look at
+    private static void bind(MeterRegistry registry, String channel, TaskExecutor taskExecutor) {
+        if (!(taskExecutor instanceof ThreadPoolTaskExecutor executor)) return;
+
+        Gauge.builder("stomp.channel.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting for a STOMP channel thread")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("stomp.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("STOMP channel threads currently busy")
+                .tag("channel", channel)
+                .register(registry);
+    }
+}
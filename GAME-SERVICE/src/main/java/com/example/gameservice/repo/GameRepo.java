@@ -1,10 +1,44 @@
 package com.example.gameservice.repo;
 
 import com.example.gameservice.entity.Game;
+import com.example.gameservice.entity.GameStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface GameRepo extends JpaRepository<Game, Long> {
     java.util.List<Game> findByStatus(com.example.gameservice.entity.GameStatus status);
+
+    // matchmaking retries /game/create with the same matchId
+    java.util.Optional<Game> findFirstByMatchId(Long matchId);
+
+    java.util.List<Game> findByMatchIdIn(java.util.Collection<Long> matchIds);
+
+    // timeout scan: games whose side to move is out of time, oldest deadline first
+    java.util.List<Game> findByStatusAndFlagAtLessThanEqualOrderByFlagAtAsc(
+            GameStatus status, LocalDateTime now, org.springframework.data.domain.Pageable page);
+
+    // rows written before flag_at existed
+    java.util.List<Game> findByStatusAndFlagAtIsNull(GameStatus status);
+
+    // Loss on time, only if the game is still where the timeout scan saw it: a move that
+    // landed in between (or another instance's scan) wins, and this returns 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE Game g SET g.status = :result, g.whiteTime = :whiteTime, g.blackTime = :blackTime,"
+            + " g.finishedAt = :now, g.updatedAt = :now, g.flagAt = null, g.version = g.version + 1"
+            + " WHERE g.id = :id AND g.currentPly = :ply"
+            + " AND g.status = com.example.gameservice.entity.GameStatus.IN_PROGRESS")
+    int finishOnTime(@Param("id") Long id,
+                     @Param("ply") int ply,
+                     @Param("result") GameStatus result,
+                     @Param("whiteTime") int whiteTime,
+                     @Param("blackTime") int blackTime,
+                     @Param("now") LocalDateTime now);
 }
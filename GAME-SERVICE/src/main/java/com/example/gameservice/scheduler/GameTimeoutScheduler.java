@@ -1,11 +1,21 @@
 package com.example.gameservice.scheduler;
 
+import com.example.gameservice.cache.GameSnapshotCache;
 import com.example.gameservice.entity.Game;
 import com.example.gameservice.entity.GameStatus;
 import com.example.gameservice.entity.GameType;
 import com.example.gameservice.repo.GameRepo;
-import lombok.RequiredArgsConstructor;
+import com.example.gameservice.spectator.SpectatorBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.example.gameservice.dto.MoveResponse;
@@ -13,19 +23,69 @@ import com.example.gameservice.dto.MoveResponse;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Ends games whose side to move ran out of time, every game.timeout.scan-interval-ms.
+// Off unless game.timeout.enabled=true (loss on time is a product decision, and scheduling
+// is only switched on together with it). Each scan reads only the games whose flag_at has
+// passed (indexed, at most game.timeout.batch-size), not every game in progress.
+// Every instance runs the scan. The write is a conditional UPDATE (GameRepo.finishOnTime),
+// so a move that lands between read and write, or another instance's scan, wins; and it
+// bumps Game.version, so a move read before it cannot save over the finished game - a
+// game is finished and broadcast exactly once. The broadcast only reaches sockets on the
+// instance that won; the gateway pins GAME-SERVICE to one instance, so enable it there and
+// leave it off on a standby.
+@Slf4j
 @Service
-@RequiredArgsConstructor
+@EnableScheduling
+@ConditionalOnProperty(name = "game.timeout.enabled", havingValue = "true")
 public class GameTimeoutScheduler {
 
     private final GameRepo gameRepo;
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameSnapshotCache snapshotCache;
+    private final SpectatorBroadcaster spectatorBroadcaster;
+    private final Timer scanTimer;
+    private final int batchSize;
 
-    @Scheduled(fixedRate = 2000) // Check every 2 seconds
+    public GameTimeoutScheduler(GameRepo gameRepo,
+                                SimpMessagingTemplate messagingTemplate,
+                                GameSnapshotCache snapshotCache,
+                                SpectatorBroadcaster spectatorBroadcaster,
+                                MeterRegistry meterRegistry,
+                                @Value("${game.timeout.batch-size:500}") int batchSize) {
+        this.gameRepo = gameRepo;
+        this.messagingTemplate = messagingTemplate;
+        this.snapshotCache = snapshotCache;
+        this.spectatorBroadcaster = spectatorBroadcaster;
+        this.scanTimer = Timer.builder("game.timeout.scan")
+                .description("Duration of one timeout scan over games out of time")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    // Games saved before flag_at existed have none, so the scan would never see them
+    @PostConstruct
+    void backfillFlagAt() {
+        List<Game> legacy = gameRepo.findByStatusAndFlagAtIsNull(GameStatus.IN_PROGRESS);
+        legacy.forEach(Game::updateFlagAt);
+        legacy.removeIf(game -> game.getFlagAt() == null); // untimed
+        try {
+            gameRepo.saveAll(legacy);
+        } catch (OptimisticLockingFailureException e) {
+            // a move saved one meanwhile, and set its flag_at itself
+            log.warn("flag_at backfill interrupted: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${game.timeout.scan-interval-ms:2000}")
     public void checkForTimeouts() {
-        // Find all games In Progress (Naive implementation: fetch all. In prod, use paginated query or status-based index)
-        List<Game> activeGames = gameRepo.findByStatus(GameStatus.IN_PROGRESS);
+        scanTimer.record(this::scan);
+    }
 
-        for (Game game : activeGames) {
+    private void scan() {
+        List<Game> dueGames = gameRepo.findByStatusAndFlagAtLessThanEqualOrderByFlagAtAsc(
+                GameStatus.IN_PROGRESS, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        for (Game game : dueGames) {
             if (game.getGameType() == GameType.STANDARD) continue; // No timer for Standard
 
             long elapsedSeconds = java.time.Duration.between(game.getLastMoveTimestamp(), LocalDateTime.now()).toSeconds();
@@ -49,8 +109,14 @@ public class GameTimeoutScheduler {
             }
 
             if (isTimeout) {
-                game.setFinishedAt(LocalDateTime.now());
-                gameRepo.save(game);
+                LocalDateTime now = LocalDateTime.now();
+                int updated = gameRepo.finishOnTime(game.getId(), game.getCurrentPly(), game.getStatus(),
+                        game.getWhiteTime(), game.getBlackTime(), now);
+                if (updated == 0) {
+                    continue; // moved or finished meanwhile - the next scan sees the new state
+                }
+                game.setFinishedAt(now);
+                snapshotCache.patch(game.getId(), snapshot -> snapshot.withGameState(game));
                 
                 // Broadcast Timeout
                 MoveResponse res = new MoveResponse();
@@ -62,7 +128,8 @@ public class GameTimeoutScheduler {
                 res.setBlackTime(game.getBlackTime());
                 
                 messagingTemplate.convertAndSend("/topic/game/" + game.getId(), res);
-                System.out.println("SCHEDULER: Game " + game.getId() + " ended due to TIMEOUT.");
+                spectatorBroadcaster.publish(res);
+                log.info("game {} ended: timeout", game.getId());
             }
         }
     }
@@ -0,0 +1,163 @@
+package com.example.gameservice.service;
+
+import com.example.gameservice.entity.GameStatus;
+import com.example.gameservice.export.ArchiveFormat;
+import com.example.gameservice.export.ArchivedGame;
+import com.example.gameservice.export.GameArchiveWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class GameExportService {
+
+    public static final List<GameStatus> FINISHED_STATUSES =
+            List.of(GameStatus.WHITE_WON, GameStatus.BLACK_WON, GameStatus.DRAW);
+
+    private final HikariDataSource exportPool;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public GameExportService(
+            DataSourceProperties dataSourceProperties,
+            @Value("${game.export.fetch-size:1000}") int fetchSize,
+            @Value("${game.export.max-connections:2}") int maxConnections
+    ) {
+        // Exports get their own small pool, so a long cursor never holds a connection the
+        // game traffic needs, and only these connections run with useCursorFetch=true:
+        // with it the fetch size becomes a server-side cursor, without it the driver would
+        // buffer the whole result set in the heap.
+        this.exportPool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(withCursorFetch(dataSourceProperties.determineUrl()))
+                .build();
+        exportPool.setPoolName("game-export");
+        exportPool.setMaximumPoolSize(maxConnections);
+        exportPool.setMinimumIdle(0);
+        exportPool.setReadOnly(true);
+
+        JdbcTemplate template = new JdbcTemplate(exportPool);
+        template.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(template);
+    }
+
+    private static String withCursorFetch(String url) {
+        if (url == null || url.contains("useCursorFetch=")) return url;
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        exportPool.close();
+    }
+
+    // =========================
+    // STREAM ARCHIVE
+    // =========================
+    // Walks games LEFT JOIN moves ordered by (game id, ply) in one cursor and writes each
+    // game as soon as its last move is read. Games come out in ascending id order, so a
+    // client that got cut off can resume with afterId = last gameId it received.
+    public void export(
+            ArchiveFormat format,
+            Collection<GameStatus> statuses,
+            LocalDateTime from,
+            LocalDateTime to,
+            long afterId,
+            OutputStream out
+    ) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT g.id, g.match_id, g.player1_id, g.player2_id, g.status, g.game_type, "
+                        + "g.fen_current, g.created_at, g.finished_at, m.ply, m.uci, m.san "
+                        + "FROM games g LEFT JOIN moves m ON m.game_id = g.id "
+                        + "WHERE g.id > :afterId AND g.status IN (:statuses)");
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("statuses", statuses.stream().map(Enum::name).toList());
+
+        if (from != null) {
+            sql.append(" AND g.finished_at >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND g.finished_at < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY g.id ASC, m.ply ASC");
+
+        ArchiveRowHandler handler = new ArchiveRowHandler(GameArchiveWriter.forFormat(format), out);
+        jdbc.query(sql.toString(), params, handler);
+        handler.finish();
+    }
+
+    private static class ArchiveRowHandler implements RowCallbackHandler {
+
+        private final GameArchiveWriter writer;
+        private final OutputStream out;
+        private ArchivedGame current;
+
+        ArchiveRowHandler(GameArchiveWriter writer, OutputStream out) {
+            this.writer = writer;
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long gameId = rs.getLong("id");
+
+            if (current == null || current.getGameId() != gameId) {
+                flush();
+                current = new ArchivedGame();
+                current.setGameId(gameId);
+                current.setMatchId(rs.getObject("match_id", Long.class));
+                current.setPlayer1Id(rs.getLong("player1_id"));
+                current.setPlayer2Id(rs.getLong("player2_id"));
+                current.setStatus(rs.getString("status"));
+                current.setGameType(rs.getString("game_type"));
+                current.setFinalFen(rs.getString("fen_current"));
+                current.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+                current.setFinishedAt(toLocalDateTime(rs.getTimestamp("finished_at")));
+            }
+
+            // LEFT JOIN: a game without moves yields a single row with NULL move columns
+            if (rs.getObject("ply") != null) {
+                String san = rs.getString("san");
+                current.getMoves().add(san != null ? san : rs.getString("uci"));
+            }
+        }
+
+        void finish() {
+            flush();
+        }
+
+        private void flush() {
+            if (current == null) return;
+            try {
+                writer.write(current, out);
+            } catch (IOException e) {
+                // Client went away - abort the cursor instead of reading the rest of the table
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+
+        private static LocalDateTime toLocalDateTime(Timestamp ts) {
+            return ts != null ? ts.toLocalDateTime() : null;
+        }
+    }
+}
@@ -1,16 +1,38 @@
 package com.example.gameservice.service;
 
+import com.example.gameservice.dto.GameCreateRequest;
 import com.example.gameservice.dto.MoveRequest;
 import com.example.gameservice.dto.MoveResponse;
 import com.example.gameservice.entity.*;
+import com.example.gameservice.metrics.MoveMetrics;
 import com.example.gameservice.repo.GameRepo;
 import com.example.gameservice.repo.MoveRepo;
+import com.example.gameservice.spectator.SpectatorBroadcaster;
+import com.example.gameservice.cache.GameSnapshot;
+import com.example.gameservice.cache.GameSnapshotCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
-
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GameService {
@@ -18,16 +40,134 @@ public class GameService {
     private final GameRepo gameRepo;
     private final MoveRepo moveRepo;
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameSnapshotCache snapshotCache;
+    private final SpectatorBroadcaster spectatorBroadcaster;
+    private final MoveMetrics moveMetrics;
+    private final TransactionTemplate tx;
+
+    private static final int MAX_MOVES_PAGE = 500;
+
+    // share of moves logged at DEBUG - every move would flood the log in a busy game
+    @Value("${game.logging.move-sample-rate:0.01}")
+    private double moveLogSampleRate;
 
     // =================================================
     // CALLED BY MATCHMAKING (FEIGN)
     // =================================================
+    // Idempotent on matchId: matchmaking's outbox retries until it sees a reply, so a
+    // game created by an earlier (timed-out) attempt is returned instead of duplicated.
+    // The lookup is only the fast path - two attempts can both miss it, and then the
+    // unique match_id makes the second insert fail and return the first one's game.
+    // Only a true retry gets the stored game: other players or game type for the same
+    // matchId is a 409, never someone else's game.
     public Game createGameFromMatchmaking(
             Long whitePlayerId,
             Long blackPlayerId,
             Long matchId,
             GameType gameType
     ) {
+        Optional<Game> existing = gameRepo.findFirstByMatchId(matchId);
+        if (existing.isPresent()) {
+            return requireSameMatch(existing.get(), whitePlayerId, blackPlayerId, gameType);
+        }
+
+        try {
+            return gameRepo.save(newMatchmakingGame(whitePlayerId, blackPlayerId, matchId, gameType));
+        } catch (DataIntegrityViolationException e) {
+            Game stored = gameRepo.findFirstByMatchId(matchId).orElseThrow(() -> e);
+            return requireSameMatch(stored, whitePlayerId, blackPlayerId, gameType);
+        }
+    }
+
+    private static boolean isSameMatch(Game game, Long whitePlayerId, Long blackPlayerId, GameType gameType) {
+        return game.getPlayer1Id().equals(whitePlayerId)
+                && game.getPlayer2Id().equals(blackPlayerId)
+                && game.getGameType() == gameType;
+    }
+
+    private static Game requireSameMatch(Game game, Long whitePlayerId, Long blackPlayerId, GameType gameType) {
+        if (!isSameMatch(game, whitePlayerId, blackPlayerId, gameType)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Match " + game.getMatchId() + " already has a game with other players");
+        }
+        return game;
+    }
+
+    // =================================================
+    // BATCH CREATE (MATCHMAKING BURSTS)
+    // =================================================
+    // One lookup for matchIds seen before, one saveAll for the rest, ids returned in
+    // request order. New games go straight into the snapshot cache, so the players'
+    // first GET /games/{id} is a hit.
+    // If the saveAll fails (a concurrent retry won a match_id, or one bad row), the page is
+    // redone row by row, so one row can't fail the others: a row that still fails gets a
+    // null id and matchmaking retries just that match. So does a row whose matchId already
+    // has a game for other players or another game type (the batch form of the 409).
+    public List<Long> createGamesFromMatchmaking(List<GameCreateRequest> requests) {
+        Map<Long, Game> byMatchId = new HashMap<>();
+        for (Game game : gameRepo.findByMatchIdIn(
+                requests.stream().map(GameCreateRequest::getMatchId).toList())) {
+            byMatchId.putIfAbsent(game.getMatchId(), game);
+        }
+
+        List<Game> created = new ArrayList<>();
+        for (GameCreateRequest request : requests) {
+            byMatchId.computeIfAbsent(request.getMatchId(), matchId -> {
+                Game game = newMatchmakingGame(
+                        request.getWhitePlayerId(), request.getBlackPlayerId(), matchId, request.getGameType());
+                created.add(game);
+                return game;
+            });
+        }
+
+        try {
+            gameRepo.saveAll(created);
+        } catch (DataAccessException e) {
+            log.warn("batch create of {} games failed ({}), creating one by one", created.size(), e.getMessage());
+            return createOneByOne(requests, byMatchId, created);
+        }
+        for (Game game : created) {
+            snapshotCache.put(GameSnapshot.of(game, List.of()));
+        }
+
+        return requests.stream()
+                .map(request -> idIfSameMatch(byMatchId.get(request.getMatchId()), request))
+                .toList();
+    }
+
+    private static Long idIfSameMatch(Game game, GameCreateRequest request) {
+        if (isSameMatch(game, request.getWhitePlayerId(), request.getBlackPlayerId(), request.getGameType())) {
+            return game.getId();
+        }
+        log.warn("create game for match {}: already has game {} with other players", game.getMatchId(), game.getId());
+        return null;
+    }
+
+    private List<Long> createOneByOne(List<GameCreateRequest> requests, Map<Long, Game> byMatchId, List<Game> unsaved) {
+        Map<Long, Game> saved = new HashMap<>();
+        for (Game game : unsaved) {
+            try {
+                Game stored = createGameFromMatchmaking(
+                        game.getPlayer1Id(), game.getPlayer2Id(), game.getMatchId(), game.getGameType());
+                snapshotCache.put(GameSnapshot.of(stored, List.of()));
+                saved.put(stored.getMatchId(), stored);
+            } catch (RuntimeException e) {
+                log.warn("create game for match {} failed: {}", game.getMatchId(), e.getMessage());
+            }
+        }
+
+        // games found by the initial lookup were not in the failed saveAll
+        Set<Long> retried = unsaved.stream().map(Game::getMatchId).collect(Collectors.toSet());
+        List<Long> result = new ArrayList<>(requests.size());
+        for (GameCreateRequest request : requests) {
+            Long matchId = request.getMatchId();
+            Game game = retried.contains(matchId) ? saved.get(matchId) : byMatchId.get(matchId);
+            result.add(game != null ? idIfSameMatch(game, request) : null);
+        }
+        return result;
+    }
+
+    private Game newMatchmakingGame(Long whitePlayerId, Long blackPlayerId, Long matchId, GameType gameType) {
         Game game = new Game(whitePlayerId, blackPlayerId, gameType);
         game.setMatchId(matchId);
         game.setStatus(GameStatus.IN_PROGRESS);
@@ -42,7 +182,7 @@ public class GameService {
         game.setBlackTime(initialTime);
         game.setLastMoveTimestamp(LocalDateTime.now()); // Set start time
 
-        return gameRepo.save(game);
+        return game;
     }
 
     // =========================
@@ -56,7 +196,7 @@ public class GameService {
         Game game = new Game(player1Id, player2Id, gameType);
         game.setStatus(GameStatus.IN_PROGRESS);
         game.setCurrentPly(0);
-        game.setMatchId(0L); // Set default matchId for manual/direct games
+        // manual/direct games have no match - matchId stays null (match_id is unique)
         
         // Initialize Timers
         int initialTime = getInitialTimeInSeconds(gameType);
@@ -79,45 +219,81 @@ public class GameService {
     // =========================
     // GET GAME
     // =========================
-    public com.example.gameservice.dto.GameResponse getGameDetails(Long gameId, Long userId) {
+    // Served from the snapshot cache; a miss costs the usual two queries.
+    public GameSnapshot getGameForPlayer(Long gameId, Long userId) {
+        GameSnapshot snapshot = snapshotCache.get(gameId, () -> loadSnapshot(gameId));
+
+        log.debug("get game gameId={} player1={} player2={} user={}",
+                gameId, snapshot.player1Id(), snapshot.player2Id(), userId);
+
+        if (!userId.equals(snapshot.player1Id())
+                && !userId.equals(snapshot.player2Id())) {
+            throw new RuntimeException("Not your game");
+        }
+        return snapshot;
+    }
+
+    // Read-only access for spectators - same snapshot, no player check
+    public GameSnapshot getGameForSpectator(Long gameId) {
+        return snapshotCache.get(gameId, () -> loadSnapshot(gameId));
+    }
+
+    private GameSnapshot loadSnapshot(Long gameId) {
         Game game = gameRepo.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
 
-        System.out.println("GET GAME DETAILS: gameId=" + gameId + ", P1=" + game.getPlayer1Id() + ", P2=" + game.getPlayer2Id() + ", reqUser=" + userId);
+        java.util.List<MoveResponse> moves = moveRepo.findByGameIdOrderByPlyAsc(gameId).stream()
+                .map(MoveResponse::fromHistory)
+                .collect(java.util.stream.Collectors.toList());
+
+        return GameSnapshot.of(game, moves);
+    }
+
+    // sincePly = null -> full history (previous behaviour)
+    // limit    = null -> every move after sincePly
+    public com.example.gameservice.dto.GameResponse getGameDetails(GameSnapshot snapshot, Integer sincePly, Integer limit) {
+        java.util.List<MoveResponse> history = snapshot.moves();
+        int since = sincePly != null ? Math.max(0, Math.min(sincePly, history.size())) : 0;
 
-        if (!userId.equals(game.getPlayer1Id())
-                && !userId.equals(game.getPlayer2Id())) {
-            throw new RuntimeException("Not your game");
+        int end = history.size();
+        if (limit != null) {
+            int pageSize = Math.max(1, Math.min(limit, MAX_MOVES_PAGE));
+            end = Math.min(end, since + pageSize);
         }
-        
-        com.example.gameservice.dto.GameResponse response = com.example.gameservice.dto.GameResponse.from(game);
-        
-        java.util.List<Move> moves = moveRepo.findByGameIdOrderByPlyAsc(gameId);
-        java.util.List<MoveResponse> moveResponses = moves.stream().map(move -> {
-            MoveResponse mr = new MoveResponse();
-            mr.setGameId(move.getGameId());
-            mr.setUci(move.getUci());
-            mr.setSan(move.getSan() != null ? move.getSan() : move.getUci()); // Fallback to UCI
-            mr.setFen(move.getFenAfter());
-            mr.setCurrentPly(move.getPly());
-            // mr.setNextTurn, etc. can be inferred or left null if not critical for history
-            return mr;
-        }).collect(java.util.stream.Collectors.toList());
-        
-        response.setMoves(moveResponses);
+
+        com.example.gameservice.dto.GameResponse response = com.example.gameservice.dto.GameResponse.from(snapshot);
+        // history.get(i) is ply i + 1, so plies (since, end] are indexes [since, end)
+        response.setMoves(history.subList(since, end));
+        response.setSincePly(since);
+        response.setNextSincePly(end);
+        response.setHasMoreMoves(end < history.size());
         return response;
     }
 
     // =========================
     // MAKE MOVE
     // =========================
+    // Each stage is timed (see MoveMetrics); time management falls between stages.
     public MoveResponse makeMove(
             Long gameId,
             Long userId,
             MoveRequest request
     ) {
+        long start = System.nanoTime();
+        boolean accepted = false;
+        try {
+            MoveResponse res = processMove(gameId, userId, request, start);
+            accepted = true;
+            return res;
+        } finally {
+            moveMetrics.move(start, accepted);
+        }
+    }
+
+    private MoveResponse processMove(Long gameId, Long userId, MoveRequest request, long start) {
         Game game = gameRepo.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
+        long mark = lap(MoveMetrics.Stage.LOAD, start);
 
         if (game.getStatus() != GameStatus.IN_PROGRESS) {
             throw new RuntimeException("Game already finished");
@@ -127,14 +303,13 @@ public class GameService {
         Long expectedPlayer =
                 isWhiteTurn ? game.getPlayer1Id() : game.getPlayer2Id();
 
-        System.out.println("Processing Move: userId=" + userId 
-             + ", gameId=" + gameId 
-             + ", ply=" + game.getCurrentPly() 
-             + ", isWhiteTurn=" + isWhiteTurn 
-             + ", expectedPlayer=" + expectedPlayer);
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < moveLogSampleRate) {
+            log.debug("move gameId={} user={} ply={} whiteTurn={} expectedPlayer={}",
+                    gameId, userId, game.getCurrentPly(), isWhiteTurn, expectedPlayer);
+        }
 
         if (!userId.equals(expectedPlayer)) {
-            System.err.println("Move REJECTED: Not user's turn.");
+            log.debug("move rejected gameId={} user={}: not their turn", gameId, userId);
             throw new RuntimeException("Not your turn");
         }
 
@@ -147,8 +322,7 @@ public class GameService {
         move.setFenBefore(game.getFenCurrent());
         String newFen = com.example.gameservice.logic.GameEngine.applyMove(game.getFenCurrent(), request.getUci());
         move.setFenAfter(newFen);
-
-        moveRepo.save(move);
+        mark = lap(MoveMetrics.Stage.VALIDATE, mark);
 
         game.setCurrentPly(move.getPly());
         game.setFenCurrent(newFen);
@@ -166,7 +340,7 @@ public class GameService {
 
                 if (newTime <= 0) {
                      game.setStatus(GameStatus.BLACK_WON); // White flag fall
-                     System.out.println("TIMEOUT: White ran out of time");
+                     log.info("game {} ended: white ran out of time", gameId);
                 }
             } else { // Black moved
                 int newTime = (int) (game.getBlackTime() - elapsedSeconds);
@@ -175,13 +349,14 @@ public class GameService {
 
                 if (newTime <= 0) {
                     game.setStatus(GameStatus.WHITE_WON); // Black flag fall
-                    System.out.println("TIMEOUT: Black ran out of time");
+                    log.info("game {} ended: black ran out of time", gameId);
                 }
             }
             game.setLastMoveTimestamp(LocalDateTime.now());
         }
         
         // --- DRAW CHECKS ---
+        mark = System.nanoTime();
         // Fetch history for 3-fold repetition
         // Optimize: we only strictly need list of FENs.
         // We can limit fetch if performance is concern, but for chess game (<200 moves) it's fine.
@@ -198,6 +373,7 @@ public class GameService {
         // Let's add basic start fen if needed.
         // For standard game:
         historyFens.add(0, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        historyFens.add(newFen); // this move, not saved yet
 
         // Update Game Status (Checkmate/Stalemate/Draws)
         GameStatus status = com.example.gameservice.logic.GameEngine.getGameStatus(newFen, historyFens);
@@ -205,8 +381,24 @@ public class GameService {
         if (status != GameStatus.IN_PROGRESS) {
             game.setFinishedAt(LocalDateTime.now());
         }
-        
-        gameRepo.save(game);
+        mark = lap(MoveMetrics.Stage.STATUS, mark);
+
+        // Move and game rows commit together, and the game row only if it is still the
+        // version read above (Game.version): a loss on time, a resign or another move that
+        // committed in between rejects this move instead of being overwritten by it.
+        try {
+            tx.executeWithoutResult(txStatus -> {
+                moveRepo.save(move);
+                gameRepo.save(game);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("move rejected gameId={} user={}: game changed meanwhile", gameId, userId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Game changed meanwhile, move rejected");
+        }
+
+        MoveResponse historyEntry = MoveResponse.fromHistory(move);
+        snapshotCache.patch(gameId, snapshot -> snapshot.withMove(game, historyEntry));
+        mark = lap(MoveMetrics.Stage.PERSIST, mark);
 
         MoveResponse res = new MoveResponse();
         res.setGameId(gameId);
@@ -220,10 +412,18 @@ public class GameService {
 
         // Broadcast move to subscribers
         messagingTemplate.convertAndSend("/topic/game/" + gameId, res);
+        spectatorBroadcaster.publish(res);
+        lap(MoveMetrics.Stage.BROADCAST, mark);
 
         return res;
     }
 
+    private long lap(MoveMetrics.Stage stage, long since) {
+        long now = System.nanoTime();
+        moveMetrics.record(stage, now - since);
+        return now;
+    }
+
     // =========================
     // RESIGN
     // =========================
@@ -245,6 +445,7 @@ public class GameService {
 
         game.setFinishedAt(LocalDateTime.now());
         gameRepo.save(game);
+        snapshotCache.patch(gameId, snapshot -> snapshot.withGameState(game));
 
         // Broadcast Resignation
         MoveResponse res = new MoveResponse();
@@ -254,6 +455,7 @@ public class GameService {
         res.setNextTurn("NONE");
         
         messagingTemplate.convertAndSend("/topic/game/" + gameId, res);
+        spectatorBroadcaster.publish(res);
     }
 
     // =========================
@@ -286,6 +488,7 @@ public class GameService {
              game.setStatus(GameStatus.DRAW);
              game.setFinishedAt(LocalDateTime.now());
              gameRepo.save(game);
+             snapshotCache.patch(gameId, snapshot -> snapshot.withGameState(game));
              
              MoveResponse res = new MoveResponse();
              res.setGameId(gameId);
@@ -294,6 +497,7 @@ public class GameService {
              res.setDrawOfferBy(null); // Clear offer
              
              messagingTemplate.convertAndSend("/topic/game/" + gameId, res);
+             spectatorBroadcaster.publish(res);
          } else {
              // If rejected, maybe just notify? 
              // Or simply clear the offer state on client by sending drawOfferBy = "REJECTED" or null?
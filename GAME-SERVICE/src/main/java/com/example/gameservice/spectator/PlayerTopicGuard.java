@@ -0,0 +1,61 @@
+package com.example.gameservice.spectator;
+
+import com.example.gameservice.config.UserIdHandshakeInterceptor;
+import com.example.gameservice.service.GameService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Keeps spectators on /topic/spectate/{gameId}: a SUBSCRIBE to /topic/game/{gameId} is only
+// accepted from a session whose handshake identity is one of the game's two players.
+// Anyone else gets a STOMP ERROR, so the players' topic never fans out to viewers.
+@Component
+public class PlayerTopicGuard implements ChannelInterceptor {
+
+    public static final String PLAYER_TOPIC_PREFIX = "/topic/game/";
+
+    private final GameService gameService;
+
+    // @Lazy: GameService needs the messaging template, which needs this interceptor
+    public PlayerTopicGuard(@Lazy GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        if (headers.getMessageType() != SimpMessageType.SUBSCRIBE) return message;
+
+        String destination = headers.getDestination();
+        if (destination == null || !destination.startsWith(PLAYER_TOPIC_PREFIX)) return message;
+
+        Long gameId = parseGameId(destination);
+        Map<String, Object> session = headers.getSessionAttributes();
+        Object userId = session != null ? session.get(UserIdHandshakeInterceptor.USER_ID) : null;
+        if (gameId == null || !(userId instanceof Long player)) {
+            throw new MessageDeliveryException(message, "Not a player of this game");
+        }
+
+        try {
+            gameService.getGameForPlayer(gameId, player); // snapshot cache; throws for non-players
+        } catch (RuntimeException e) {
+            throw new MessageDeliveryException(message, "Not a player of this game");
+        }
+        return message;
+    }
+
+    private static Long parseGameId(String destination) {
+        try {
+            return Long.valueOf(destination.substring(PLAYER_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
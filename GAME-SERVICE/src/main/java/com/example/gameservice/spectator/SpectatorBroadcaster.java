@@ -0,0 +1,103 @@
+package com.example.gameservice.spectator;
+
+import com.example.gameservice.dto.MoveResponse;
+import com.example.gameservice.dto.SpectatorUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Spectator feed for /topic/spectate/{gameId}, kept off the players' path:
+// - publish() only appends to a per-game queue, so a move never waits on spectator fan-out
+// - a single dedicated thread flushes every flush-interval-ms and sends only the latest
+//   update per game (coalescing), optionally held back by delay-ms
+// - games without viewers are dropped without sending anything
+// Each game's queue is only touched inside pending.compute(), so an append can never land
+// in a queue the flusher has just emptied and removed.
+// Players keep /topic/game/{gameId}; PlayerTopicGuard refuses anyone else's SUBSCRIBE there.
+@Slf4j
+@Component
+public class SpectatorBroadcaster {
+
+    private record Timed(MoveResponse update, long publishedAt) {}
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ViewerRegistry viewerRegistry;
+    private final long delayMs;
+
+    private final Map<Long, Deque<Timed>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public SpectatorBroadcaster(
+            SimpMessagingTemplate messagingTemplate,
+            ViewerRegistry viewerRegistry,
+            @Value("${game.spectator.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${game.spectator.delay-ms:0}") long delayMs
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.viewerRegistry = viewerRegistry;
+        this.delayMs = delayMs;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "spectator-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void publish(MoveResponse update) {
+        if (viewerRegistry.getViewerCount(update.getGameId()) == 0) return;
+
+        Timed timed = new Timed(update, System.currentTimeMillis());
+        pending.compute(update.getGameId(), (id, queue) -> {
+            Deque<Timed> q = queue != null ? queue : new ArrayDeque<>();
+            q.addLast(timed);
+            return q;
+        });
+    }
+
+    void flush() {
+        long cutoff = System.currentTimeMillis() - delayMs;
+
+        for (Long gameId : pending.keySet()) {
+            // Coalesce: of everything old enough to show, only the newest is sent
+            Timed[] latest = new Timed[1];
+            pending.computeIfPresent(gameId, (id, queue) -> {
+                Timed head;
+                while ((head = queue.peekFirst()) != null && head.publishedAt() <= cutoff) {
+                    latest[0] = queue.pollFirst();
+                }
+                return queue.isEmpty() ? null : queue;
+            });
+            if (latest[0] == null) continue;
+
+            long viewers = viewerRegistry.getViewerCount(gameId);
+            if (viewers == 0) continue;
+
+            try {
+                messagingTemplate.convertAndSend(
+                        ViewerRegistry.SPECTATE_PREFIX + gameId,
+                        new SpectatorUpdate(latest[0].update(), viewers)
+                );
+            } catch (Exception e) {
+                // never let one bad send kill the flusher thread
+                log.warn("spectator broadcast failed for game {}: {}", gameId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+}
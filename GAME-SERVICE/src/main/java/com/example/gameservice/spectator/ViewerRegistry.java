@@ -0,0 +1,85 @@
+package com.example.gameservice.spectator;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live spectator counts per game, driven by STOMP SUBSCRIBE / UNSUBSCRIBE / DISCONNECT
+// on /topic/spectate/{gameId}. LongAdder keeps the counters striped so a popular game
+// with many viewers joining at once does not contend on a single cell.
+@Component
+public class ViewerRegistry {
+
+    public static final String SPECTATE_PREFIX = "/topic/spectate/";
+
+    private final Map<Long, LongAdder> viewers = new ConcurrentHashMap<>();
+
+    // sessionId -> (subscriptionId -> gameId), needed because UNSUBSCRIBE/DISCONNECT carry no destination
+    private final Map<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Long gameId = parseGameId(headers.getDestination());
+        if (gameId == null || headers.getSessionId() == null || headers.getSubscriptionId() == null) return;
+
+        Long previous = subscriptions
+                .computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), gameId);
+        if (previous == null) {
+            viewers.computeIfAbsent(gameId, id -> new LongAdder()).increment();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> sessionSubs = subscriptions.get(headers.getSessionId());
+        if (sessionSubs == null || headers.getSubscriptionId() == null) return;
+
+        Long gameId = sessionSubs.remove(headers.getSubscriptionId());
+        if (gameId != null) {
+            decrement(gameId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> sessionSubs = subscriptions.remove(event.getSessionId());
+        if (sessionSubs == null) return;
+
+        sessionSubs.values().forEach(this::decrement);
+    }
+
+    public long getViewerCount(Long gameId) {
+        LongAdder count = viewers.get(gameId);
+        return count == null ? 0 : Math.max(0, count.sum());
+    }
+
+    private void decrement(Long gameId) {
+        LongAdder count = viewers.get(gameId);
+        if (count == null) return;
+
+        count.decrement();
+        if (count.sum() <= 0) {
+            // Last viewer left - drop the counter unless someone re-subscribed in between
+            viewers.computeIfPresent(gameId, (id, c) -> c.sum() <= 0 ? null : c);
+        }
+    }
+
+    private static Long parseGameId(String destination) {
+        if (destination == null || !destination.startsWith(SPECTATE_PREFIX)) return null;
+        try {
+            return Long.valueOf(destination.substring(SPECTATE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
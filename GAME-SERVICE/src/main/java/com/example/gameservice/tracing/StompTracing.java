@@ -0,0 +1,162 @@
+package com.example.gameservice.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Trace context over STOMP (Spring Messaging 6.1 has no observation support of its own).
+// The context travels in native headers (traceparent), i.e. on the wire as STOMP frame headers:
+//  - inbound: every @MessageMapping call runs in a CONSUMER span, continuing the trace
+//    of the SEND frame when the client put a traceparent on it
+//  - broker: whatever span is current when GameService / the timeout scheduler broadcasts
+//    is stamped on the message, so subscribers get it on their MESSAGE frames
+//  - outbound: each delivery is a span that starts at publish time, so the
+//    clientOutboundChannel queue wait shows up as its own hop
+// Registered in WebSocketConfig.
+@Component
+public class StompTracing {
+
+    private static final String PUBLISHED_AT = "tracing.publishedAtMicros";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+");
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    private final Inbound inbound = new Inbound();
+    private final Broker broker = new Broker();
+    private final Outbound outbound = new Outbound();
+
+    public StompTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    public ChannelInterceptor broker() {
+        return broker;
+    }
+
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    private record Handling(Span span, Tracer.SpanInScope scope) {}
+
+    private class Inbound implements ExecutorChannelInterceptor {
+
+        private final ThreadLocal<Handling> current = new ThreadLocal<>();
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            // the broker and user-destination handlers see the same message - one span per app call
+            if (!(handler instanceof SimpAnnotationMethodMessageHandler)) return message;
+
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            Span span = propagator.extract(message, StompTracing::nativeHeader)
+                    .name("stomp " + spanName(destination))
+                    .kind(Span.Kind.CONSUMER)
+                    .tag("stomp.destination", String.valueOf(destination))
+                    .start();
+            current.set(new Handling(span, tracer.withSpan(span)));
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+            Handling handling = current.get();
+            if (handling == null || !(handler instanceof SimpAnnotationMethodMessageHandler)) return;
+
+            current.remove();
+            handling.scope().close();
+            if (ex != null) {
+                handling.span().error(ex);
+            }
+            handling.span().end();
+        }
+    }
+
+    private class Broker implements ChannelInterceptor {
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            Span span = tracer.currentSpan();
+            if (span == null) return message;
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            propagator.inject(span.context(), accessor, NativeMessageHeaderAccessor::setNativeHeader);
+            accessor.setHeader(PUBLISHED_AT, nowMicros());
+            return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        }
+    }
+
+    private class Outbound implements ExecutorChannelInterceptor {
+
+        private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            // only broker deliveries of a traced publish; CONNECTED, RECEIPT etc. are left alone
+            if (!(message.getHeaders().get(PUBLISHED_AT) instanceof Long publishedAt)) return message;
+
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            Span span = propagator.extract(message, StompTracing::nativeHeader)
+                    .name("stomp deliver " + spanName(destination))
+                    .kind(Span.Kind.PRODUCER)
+                    .tag("stomp.destination", String.valueOf(destination))
+                    .startTimestamp(publishedAt, TimeUnit.MICROSECONDS)
+                    .start();
+            current.set(span);
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+            Span span = current.get();
+            if (span == null) return;
+
+            current.remove();
+            if (ex != null) {
+                span.error(ex);
+            }
+            span.end();
+        }
+    }
+
+    // "/app/game/42/move" -> "/app/game/{id}/move": span names stay low-cardinality
+    private static String spanName(String destination) {
+        return destination != null ? NUMERIC_SEGMENT.matcher(destination).replaceAll("/{id}") : "unknown";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String nativeHeader(Message<?> message, String name) {
+        Object headers = message.getHeaders().get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        if (!(headers instanceof Map<?, ?> map)) return null;
+
+        List<String> values = ((Map<String, List<String>>) map).get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    private static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+}
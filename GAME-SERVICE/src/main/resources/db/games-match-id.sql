@@ -0,0 +1,45 @@
+-- games.match_id became nullable and unique (uk_games_match_id): manual games used to store 0,
+-- now NULL, and racing /game/create retries could leave several games for one match.
+-- ddl-auto=update can neither relax NOT NULL nor add a unique key over duplicates, so an
+-- existing table is migrated here, before Hibernate starts. The whole script is guarded:
+-- it does nothing on a fresh database (Hibernate creates the table, key included) and
+-- nothing once uk_games_match_id exists, so it really runs once.
+SET @migrate = (SELECT COUNT(*) = 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'games')
+           AND (SELECT COUNT(*) = 0 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'games' AND index_name = 'uk_games_match_id');
+
+SET @step = IF(@migrate, 'ALTER TABLE games MODIFY match_id BIGINT NULL', 'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
+
+SET @step = IF(@migrate, 'UPDATE games SET match_id = NULL WHERE match_id = 0', 'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
+
+-- duplicates: the oldest game keeps the match, the others stay as games without one
+SET @step = IF(@migrate,
+    'UPDATE games g JOIN (SELECT match_id, MIN(id) AS keep_id FROM games WHERE match_id IS NOT NULL
+         GROUP BY match_id HAVING COUNT(*) > 1) d ON g.match_id = d.match_id AND g.id <> d.keep_id
+     SET g.match_id = NULL',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
+
+-- the plain index the unique key replaces
+SET @step = IF(@migrate AND (SELECT COUNT(*) FROM information_schema.statistics
+                             WHERE table_schema = DATABASE() AND table_name = 'games'
+                               AND index_name = 'idx_games_match_id') > 0,
+    'DROP INDEX idx_games_match_id ON games',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
+
+SET @step = IF(@migrate, 'ALTER TABLE games ADD CONSTRAINT uk_games_match_id UNIQUE (match_id)', 'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
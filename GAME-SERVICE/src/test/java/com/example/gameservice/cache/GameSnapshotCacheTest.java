@@ -0,0 +1,77 @@
+package com.example.gameservice.cache;
+
+import com.example.gameservice.entity.GameStatus;
+import com.example.gameservice.entity.GameType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameSnapshotCacheTest {
+
+    private final GameSnapshotCache cache = new GameSnapshotCache(new SimpleMeterRegistry(), 2, 30_000);
+
+    private static GameSnapshot snapshot(long gameId, int ply) {
+        return new GameSnapshot(gameId, 1L, 2L, GameStatus.IN_PROGRESS, GameType.BLITZ, ply,
+                "fen-" + ply, 180, 180, null, List.of());
+    }
+
+    @Test
+    void hitDoesNotCallLoader() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> { loads.incrementAndGet(); return snapshot(1L, 0); });
+        cache.get(1L, () -> { loads.incrementAndGet(); return snapshot(1L, 0); });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void patchAppliesToCachedEntry() {
+        cache.put(snapshot(1L, 3));
+        cache.patch(1L, s -> snapshot(1L, 4));
+
+        assertEquals(4, cache.get(1L, () -> snapshot(1L, 0)).currentPly());
+    }
+
+    @Test
+    void writeDuringMissLoadKeepsStaleSnapshotOutOfCache() {
+        // loader reads ply 5, then a move commits ply 6 and patches a cache that has no entry yet
+        GameSnapshot served = cache.get(1L, () -> {
+            GameSnapshot read = snapshot(1L, 5);
+            cache.patch(1L, s -> snapshot(1L, 6));
+            return read;
+        });
+        assertEquals(5, served.currentPly()); // that request may see its own (older) read ...
+
+        // ... but the next one must load again instead of getting ply 5 until the TTL
+        GameSnapshot next = cache.get(1L, () -> snapshot(1L, 6));
+        assertEquals(6, next.currentPly());
+    }
+
+    @Test
+    void putDuringMissLoadWins() {
+        GameSnapshot served = cache.get(1L, () -> {
+            cache.put(snapshot(1L, 7));
+            return snapshot(1L, 6);
+        });
+
+        assertEquals(7, served.currentPly());
+        assertEquals(7, cache.get(1L, () -> snapshot(1L, 0)).currentPly());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        cache.put(snapshot(1L, 0));
+        cache.put(snapshot(2L, 0));
+        cache.get(1L, () -> snapshot(1L, 0)); // touch 1, so 2 is eldest
+        cache.put(snapshot(3L, 0));
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(2L, () -> { loads.incrementAndGet(); return snapshot(2L, 0); });
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.size());
+    }
+}
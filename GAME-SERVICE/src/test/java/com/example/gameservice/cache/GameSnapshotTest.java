@@ -0,0 +1,29 @@
+package com.example.gameservice.cache;
+
+import com.example.gameservice.entity.GameStatus;
+import com.example.gameservice.entity.GameType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class GameSnapshotTest {
+
+    private final GameSnapshot snapshot = new GameSnapshot(1L, 1L, 2L, GameStatus.IN_PROGRESS, GameType.BLITZ, 40,
+            "fen", 180, 180, null, List.of());
+
+    @Test
+    void pagesOfTheSameStateHaveDifferentEtags() {
+        assertNotEquals(snapshot.etag(0, 20), snapshot.etag(20, 20));
+        assertNotEquals(snapshot.etag(null, null), snapshot.etag(0, 20));
+        assertNotEquals(snapshot.etag(20, null), snapshot.etag(null, 20));
+    }
+
+    @Test
+    void samePageOfTheSameStateKeepsItsEtag() {
+        assertEquals(snapshot.etag(20, 20), snapshot.etag(20, 20));
+        assertEquals("\"1-40-IN_PROGRESS\"", snapshot.etag(null, null));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.matchmakingservice.client;
+
+import com.example.matchmakingservice.config.CorrelationIdFilter;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+// Carries the current request's correlation id on outgoing Feign calls, so USER-SERVICE
+// and GAME-SERVICE log lines can be tied back to the join that caused them
+@Component
+public class CorrelationIdInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        String id = MDC.get(CorrelationIdFilter.MDC_KEY);
+        if (id != null) {
+            template.header(CorrelationIdFilter.HEADER, id);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.example.matchmakingservice.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import com.example.matchmakingservice.dto.GameCreateRequest;
 import com.example.matchmakingservice.entity.GameType;
 
+import java.util.List;
+
 @FeignClient(name = "GAME-SERVICE")
 public interface GameServiceClient {
 
@@ -15,4 +19,8 @@ public interface GameServiceClient {
             @RequestParam("matchId") Long matchId,
             @RequestParam("gameType") GameType gameType
     );
+
+    // ids come back in request order; idempotent on matchId like /game/create
+    @PostMapping("/game/create/batch")
+    List<Long> createGames(@RequestBody List<GameCreateRequest> requests);
 }
@@ -9,4 +9,7 @@ public interface UserServiceClient {
 
     @GetMapping("/users/{userId}")
     String getUserById(@PathVariable Long userId);
+
+    @GetMapping("/users/{userId}/rating")
+    Integer getRating(@PathVariable("userId") Long userId);
 }
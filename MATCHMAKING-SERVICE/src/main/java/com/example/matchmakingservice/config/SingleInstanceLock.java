@@ -0,0 +1,120 @@
+package com.example.matchmakingservice.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// MATCHMAKING-SERVICE is single-instance by design: the waiting pool (MatchmakingQueue),
+// unread results (MatchQueueService), SSE streams and long-polls all live in this JVM.
+// Two instances would split the pool - players on different instances never pair - and a
+// /check landing on the other one would see nothing.
+// So the running instance holds a MySQL named lock on a dedicated connection for its whole
+// life, and a second one fails at startup instead of silently halving the queue. MySQL drops
+// the lock with the connection, so a replacement can start as soon as the holder is gone.
+@Slf4j
+@Component
+public class SingleInstanceLock {
+
+    private final String lockName;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private ScheduledExecutorService keepAlive;
+    private Connection connection; // only touched under this
+
+    public SingleInstanceLock(
+            DataSourceProperties dataSource,
+            @Value("${matchmaking.single-instance.lock-name:matchmaking-service}") String lockName,
+            @Value("${matchmaking.single-instance.wait-seconds:15}") int waitSeconds,
+            @Value("${matchmaking.single-instance.check-interval-ms:30000}") long checkIntervalMs
+    ) {
+        this.lockName = lockName;
+        this.url = dataSource.determineUrl();
+        this.username = dataSource.determineUsername();
+        this.password = dataSource.determinePassword();
+
+        // waits a little, so a rolling restart can overlap with the old instance shutting down
+        if (!acquire(waitSeconds)) {
+            release();
+            throw new IllegalStateException("Another MATCHMAKING-SERVICE instance holds lock '" + lockName
+                    + "' - matchmaking state is in-memory, only one instance may run");
+        }
+        log.info("single instance lock '{}' acquired", lockName);
+
+        this.keepAlive = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "single-instance-lock");
+            t.setDaemon(true);
+            return t;
+        });
+        // also keeps the connection from hitting wait_timeout, which would release the lock
+        keepAlive.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean acquire(int waitSeconds) {
+        try {
+            close();
+            connection = DriverManager.getConnection(url, username, password);
+            try (PreparedStatement st = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                st.setString(1, lockName);
+                st.setInt(2, waitSeconds);
+                try (ResultSet rs = st.executeQuery()) {
+                    return rs.next() && rs.getInt(1) == 1;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot take single instance lock '" + lockName + "'", e);
+        }
+    }
+
+    private synchronized void check() {
+        if (connection != null) {
+            try (PreparedStatement st = connection.prepareStatement("SELECT IS_USED_LOCK(?) = CONNECTION_ID()")) {
+                st.setString(1, lockName);
+                try (ResultSet rs = st.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) return;
+                }
+            } catch (SQLException e) {
+                log.warn("single instance lock: connection lost ({}), re-acquiring", e.getMessage());
+            }
+        }
+
+        try {
+            if (!acquire(0)) {
+                log.error("single instance lock '{}' is held by another instance - the matchmaking pool is split",
+                        lockName);
+            }
+        } catch (IllegalStateException e) {
+            log.warn("single instance lock: re-acquire failed: {}", e.getMessage());
+        }
+    }
+
+    private void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // already gone
+        }
+        connection = null;
+    }
+
+    @PreDestroy
+    synchronized void release() {
+        if (keepAlive != null) {
+            keepAlive.shutdownNow();
+        }
+        close(); // MySQL releases the lock with the session
+    }
+}
@@ -2,16 +2,23 @@ package com.example.matchmakingservice.controller;
 
 import com.example.matchmakingservice.dto.MatchResponse;
 import com.example.matchmakingservice.entity.GameType;
+import com.example.matchmakingservice.notification.MatchNotificationService;
 import com.example.matchmakingservice.service.MatchService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+@Slf4j
 @RestController
 @RequestMapping("/matchmaking")
 @RequiredArgsConstructor
 public class MatchController {
 
     private final MatchService matchService;
+    private final MatchNotificationService matchNotificationService;
 
     // JOIN QUEUE
     @PostMapping("/join")
@@ -19,7 +26,7 @@ public class MatchController {
             @RequestHeader(value = "X-USER-ID", required = false) Long userId,
             @RequestParam(defaultValue = "STANDARD") GameType gameType
     ) {
-        System.out.println("MATCH-SERVICE → received X-USER-ID = " + userId);
+        log.debug("join queue user={} gameType={}", userId, gameType);
 
         if (userId == null) {
             throw new RuntimeException("X-USER-ID is missing");
@@ -33,15 +40,34 @@ public class MatchController {
 
 
     // CHECK MATCH
+    // wait > 0 (seconds, max 30) long-polls: a still-waiting player is answered when the
+    // match forms instead of getting -1 straight away
     @GetMapping("/check")
-    public MatchResponse checkMatch(
+    public DeferredResult<MatchResponse> checkMatch(
             @RequestHeader("X-USER-ID") Long userId,
-            @RequestParam(defaultValue = "STANDARD") GameType gameType
+            @RequestParam(defaultValue = "STANDARD") GameType gameType,
+            @RequestParam(defaultValue = "0") long wait
     ) {
         Long result = matchService.checkMatch(userId, gameType)
                 .orElse(-2L);
 
-        return new MatchResponse(result);
+        if (result != -1L || wait <= 0) {
+            DeferredResult<MatchResponse> response = new DeferredResult<>();
+            response.setResult(new MatchResponse(result));
+            return response;
+        }
+
+        return matchNotificationService.awaitMatch(userId, wait * 1000, () ->
+                new MatchResponse(matchService.checkMatch(userId, gameType).orElse(-2L)));
+    }
+
+    // MATCH EVENTS (SSE)
+    // Emits one "match" event with the gameId, then closes. /check remains as fallback.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter matchEvents(
+            @RequestHeader("X-USER-ID") Long userId
+    ) {
+        return matchNotificationService.subscribe(userId);
     }
 
     // CANCEL QUEUE
@@ -51,6 +77,7 @@ public class MatchController {
             @RequestParam(defaultValue = "STANDARD") GameType gameType
     ) {
         boolean cancelled = matchService.cancelQueue(userId, gameType);
+        matchNotificationService.searchEnded(userId);
         return new MatchResponse(cancelled ? 1L : 0L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.matchmakingservice.dto;
+
+import com.example.matchmakingservice.entity.GameType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of GAME-SERVICE POST /game/create/batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameCreateRequest {
+    private Long whitePlayerId;
+    private Long blackPlayerId;
+    private Long matchId;
+    private GameType gameType;
+}
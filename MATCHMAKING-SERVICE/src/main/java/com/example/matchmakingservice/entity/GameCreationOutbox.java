@@ -0,0 +1,62 @@
+package com.example.matchmakingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Transactional outbox: written in the same transaction as its Match, deleted once
+// GAME-SERVICE has created the game (see GameCreationDispatcher).
+@Entity
+@Table(name = "game_creation_outbox", indexes = {
+    @Index(name = "idx_outbox_next_attempt", columnList = "nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameCreationOutbox {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long matchId;
+
+    @Column(nullable = false)
+    private Long whitePlayerId;
+
+    @Column(nullable = false)
+    private Long blackPlayerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GameType gameType;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // W3C traceparent of the join that formed the match, null when it wasn't traced
+    // (see OutboxTracing)
+    @Column(length = 55)
+    private String traceParent;
+
+    public static GameCreationOutbox of(Match match, String traceParent) {
+        return GameCreationOutbox.builder()
+                .matchId(match.getId())
+                .whitePlayerId(match.getPlayer1Id())
+                .blackPlayerId(match.getPlayer2Id())
+                .gameType(match.getGameType())
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .traceParent(traceParent)
+                .build();
+    }
+}
@@ -23,7 +23,7 @@ import java.time.LocalDateTime;
 public class MatchQueueEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, unique = true)
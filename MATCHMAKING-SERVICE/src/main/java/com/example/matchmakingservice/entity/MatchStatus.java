@@ -3,7 +3,8 @@ package com.example.matchmakingservice.entity;
 public enum MatchStatus {
     CREATED,
     ONGOING,
-    FINISHED
+    FINISHED,
+    FAILED      // game could not be created - players were told to search again
 }
 
 
@@ -0,0 +1,77 @@
+package com.example.matchmakingservice.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered 52-bit ids, generated without a DB round trip:
+//
+//   40 bits  milliseconds since 2024-01-01 UTC (~34 years)
+//    4 bits  node id (ID_NODE_ID env var, 0-15) - required, each instance of a service needs
+//            its own; there is no safe default, so an instance without one fails at startup
+//    8 bits  sequence within the millisecond (256 ids/ms per node)
+//
+// 52 bits keep every id below 2^53, so ids stay exact as JavaScript numbers in the frontend.
+// Ids are far above any AUTO_INCREMENT value already in the tables, so old and new rows
+// never collide.
+// Copied per service: the services are separate Maven builds with no parent POM or shared
+// artifact, and this is the only class they would share. Keep the copies identical (only
+// MATCHMAKING-SERVICE adds epochMillisOf, for its metrics).
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    private static final long EPOCH_MS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NODE_ID = nodeId();
+
+    // (timestamp << SEQUENCE_BITS) | sequence - shared by every entity of this service.
+    // A full sequence simply carries into the next millisecond, and a clock that steps
+    // back keeps counting from the last timestamp, so ids never repeat or go backwards.
+    private static final AtomicLong STATE = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    public static long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MS;
+        long prev;
+        long next;
+        do {
+            prev = STATE.get();
+            next = (now > prev >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : prev + 1;
+        } while (!STATE.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                | (NODE_ID << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+    }
+
+    // When the id was generated (epoch ms); a burst that carried into later milliseconds
+    // reads a little late
+    public static long epochMillisOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    // Read when Hibernate builds the generator, so a missing node id stops the service at boot.
+    // The id.node-id system property is for tools that run without the env (the simulation).
+    private static long nodeId() {
+        String value = System.getenv("ID_NODE_ID");
+        if (value == null || value.isBlank()) {
+            value = System.getProperty("id.node-id");
+        }
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("ID_NODE_ID is not set - give each instance of a service its own 0-"
+                    + ((1L << NODE_BITS) - 1) + ", or two instances will generate the same ids");
+        }
+        long id = Long.parseLong(value.trim());
+        if (id < 0 || id >= (1L << NODE_BITS)) {
+            throw new IllegalStateException("ID_NODE_ID must be between 0 and " + ((1L << NODE_BITS) - 1));
+        }
+        return id;
+    }
+}
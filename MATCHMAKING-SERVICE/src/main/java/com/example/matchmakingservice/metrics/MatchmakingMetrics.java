@@ -0,0 +1,71 @@
+package com.example.matchmakingservice.metrics;
+
+import com.example.matchmakingservice.entity.GameCreationOutbox;
+import com.example.matchmakingservice.entity.GameType;
+import com.example.matchmakingservice.entity.TimeOrderedIdGenerator;
+import com.example.matchmakingservice.queue.QueueTicket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Matchmaking timers, exposed under /actuator/metrics/<name>
+// (percentiles are configured in management.metrics.distribution):
+//   matchmaking.time.to.match        join -> paired, one sample per player, tag gameType
+//   matchmaking.game.creation.delay  paired -> game created in GAME-SERVICE (outbox)
+//   matchmaking.batch.pairing        one pairing tick over a pool (batch mode), tag gameType
+//   matchmaking.outbox.drain         one outbox drain pass
+@Component
+public class MatchmakingMetrics {
+
+    private final Map<GameType, Timer> timeToMatch = new EnumMap<>(GameType.class);
+    private final Map<GameType, Timer> batchPairing = new EnumMap<>(GameType.class);
+    private final Timer gameCreationDelay;
+    private final Timer outboxDrain;
+
+    public MatchmakingMetrics(MeterRegistry registry) {
+        for (GameType gameType : GameType.values()) {
+            timeToMatch.put(gameType, Timer.builder("matchmaking.time.to.match")
+                    .description("Time a player waited in the queue before being paired")
+                    .tag("gameType", gameType.name())
+                    .register(registry));
+            batchPairing.put(gameType, Timer.builder("matchmaking.batch.pairing")
+                    .description("Duration of one batch pairing tick")
+                    .tag("gameType", gameType.name())
+                    .register(registry));
+        }
+        this.gameCreationDelay = Timer.builder("matchmaking.game.creation.delay")
+                .description("Time from a match being recorded to its game existing")
+                .register(registry);
+        this.outboxDrain = Timer.builder("matchmaking.outbox.drain")
+                .description("Duration of one game-creation outbox drain")
+                .register(registry);
+    }
+
+    public void paired(QueueTicket first, QueueTicket second) {
+        Timer timer = timeToMatch.get(first.getGameType());
+        timer.record(first.getWaitMillis(), TimeUnit.MILLISECONDS);
+        timer.record(second.getWaitMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // match ids are time-ordered, so the id itself says when the match was recorded
+    public void gamesCreated(List<GameCreationOutbox> entries) {
+        long now = System.currentTimeMillis();
+        for (GameCreationOutbox entry : entries) {
+            gameCreationDelay.record(
+                    Math.max(0, now - TimeOrderedIdGenerator.epochMillisOf(entry.getMatchId())), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Timer batchPairing(GameType gameType) {
+        return batchPairing.get(gameType);
+    }
+
+    public Timer outboxDrain() {
+        return outboxDrain;
+    }
+}
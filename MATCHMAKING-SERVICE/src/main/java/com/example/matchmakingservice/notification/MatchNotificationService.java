@@ -0,0 +1,140 @@
+package com.example.matchmakingservice.notification;
+
+import com.example.matchmakingservice.dto.MatchResponse;
+import com.example.matchmakingservice.service.MatchQueueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Server push for "match found": each waiting player holds one SSE stream
+// (GET /matchmaking/events). When their game is created the gameId is pushed to
+// both players and the stream is closed, so nobody has to poll /check.
+// Long-polling clients (/check?wait=N) are parked here as a DeferredResult and completed
+// by the same event; no servlet thread is held while they wait.
+// The result is also parked in MatchQueueService for clients that poll instead.
+@Service
+@RequiredArgsConstructor
+public class MatchNotificationService {
+
+    private static final String MATCH_EVENT = "match";
+
+    private final MatchQueueService matchQueueService;
+    private final Map<Long, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, DeferredResult<MatchResponse>> waiters = new ConcurrentHashMap<>();
+
+    @Value("${matchmaking.events.timeout-ms:120000}")
+    private long timeoutMs;
+
+    @Value("${matchmaking.long-poll.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    // =========================
+    // SUBSCRIBE
+    // =========================
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        SseEmitter previous = emitters.put(userId, emitter);
+        if (previous != null) {
+            previous.complete(); // one stream per user - the newest tab wins
+        }
+
+        emitter.onCompletion(() -> emitters.remove(userId, emitter));
+        emitter.onTimeout(() -> emitters.remove(userId, emitter));
+        emitter.onError(e -> emitters.remove(userId, emitter));
+
+        // The match may have formed between the join response and this subscription
+        Long gameId = matchQueueService.getPendingMatchId(userId);
+        if (gameId != null) {
+            send(userId, emitter, gameId);
+        }
+        return emitter;
+    }
+
+    // =========================
+    // LONG POLL
+    // =========================
+    // Parks the request until a match forms or waitMs (capped) passes. On timeout the
+    // regular check runs once more (widened rating window) via onTimeout.
+    public DeferredResult<MatchResponse> awaitMatch(Long userId, long waitMs, Supplier<MatchResponse> onTimeout) {
+        DeferredResult<MatchResponse> waiter = new DeferredResult<>(Math.min(waitMs, maxWaitMs));
+
+        DeferredResult<MatchResponse> previous = waiters.put(userId, waiter);
+        if (previous != null) {
+            previous.setResult(new MatchResponse(-1L)); // superseded by the newer poll
+        }
+
+        waiter.onTimeout(() -> {
+            waiters.remove(userId, waiter);
+            waiter.setResult(onTimeout.get());
+        });
+        waiter.onCompletion(() -> waiters.remove(userId, waiter));
+        waiter.onError(e -> waiters.remove(userId, waiter));
+
+        // Registered first, then checked: a match formed in between is caught either here
+        // or by matchFound() - setResult() ignores the second completion
+        Long gameId = matchQueueService.getPendingMatchId(userId);
+        if (gameId != null) {
+            waiter.setResult(new MatchResponse(gameId));
+        }
+        return waiter;
+    }
+
+    // Player left the queue - answer a parked poll right away
+    public void searchEnded(Long userId) {
+        DeferredResult<MatchResponse> waiter = waiters.remove(userId);
+        if (waiter != null) {
+            waiter.setResult(new MatchResponse(0L));
+        }
+    }
+
+    // =========================
+    // PUBLISH
+    // =========================
+    public void matchFound(Long player1Id, Long player2Id, Long gameId) {
+        matchQueueService.addPendingMatch(player1Id, player2Id, gameId);
+        push(player1Id, gameId);
+        push(player2Id, gameId);
+    }
+
+    // Search timed out (QueueExpirySweeper): -2 now, or on the next /check
+    public void searchExpired(Long userId) {
+        matchQueueService.addSearchExpired(userId);
+        push(userId, -2L);
+    }
+
+    // Game could not be created: -2 tells the client to stop waiting (same as a search timeout)
+    public void matchFailed(Long player1Id, Long player2Id) {
+        push(player1Id, -2L);
+        push(player2Id, -2L);
+    }
+
+    private void push(Long userId, Long gameId) {
+        SseEmitter emitter = emitters.remove(userId);
+        if (emitter != null) {
+            send(userId, emitter, gameId);
+        }
+
+        DeferredResult<MatchResponse> waiter = waiters.remove(userId);
+        if (waiter != null) {
+            waiter.setResult(new MatchResponse(gameId));
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, Long gameId) {
+        try {
+            emitter.send(SseEmitter.event().name(MATCH_EVENT).data(new MatchResponse(gameId)));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // client already gone - it will fall back to /check
+            emitters.remove(userId, emitter);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.matchmakingservice.queue;
+
+import com.example.matchmakingservice.entity.GameType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory waiting pool per GameType, indexed by skill.
+// - players sit in FIFO buckets of BUCKET_WIDTH rating points, held in a skip list, so
+//   finding the buckets inside a search window is O(log n) and scans nearest buckets first
+// - each player's search window starts at base-window and widens the longer they wait;
+//   a pair is only made when both players' windows cover the rating gap
+// - pairing claims tickets with CAS, no locks and no DB round trips
+// - cancel is O(1): the ticket is flagged and unlinked lazily by the next scan
+// - byUser is the single source of truth for "is this user waiting"
+// - every linked ticket gets a deadline in a DelayQueue; takeExpired() hands out tickets
+//   whose max-wait passed (see QueueExpirySweeper), without ever scanning the pool
+@Component
+public class MatchmakingQueue {
+
+    public static final int BUCKET_WIDTH = 25;
+
+    public record JoinResult(Status status, QueueTicket ticket, QueueTicket opponent) {
+        public enum Status { ALREADY_WAITING, WAITING, PAIRED }
+    }
+
+    private final Map<GameType, ConcurrentSkipListMap<Integer, Deque<QueueTicket>>> pools = new EnumMap<>(GameType.class);
+    private final Map<Long, QueueTicket> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    // A ticket that is paired or cancelled first just sits here until its deadline and is skipped
+    private record Deadline(QueueTicket ticket, long expiresAtMillis) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((Deadline) other).expiresAtMillis);
+        }
+    }
+
+    private final int baseWindow;
+    private final int widenBy;
+    private final long widenEveryMillis;
+    private final int maxWindow;
+    private final long maxWaitMillis;
+
+    public MatchmakingQueue(
+            @Value("${matchmaking.rating.base-window:100}") int baseWindow,
+            @Value("${matchmaking.rating.widen-by:50}") int widenBy,
+            @Value("${matchmaking.rating.widen-every-ms:5000}") long widenEveryMillis,
+            @Value("${matchmaking.rating.max-window:600}") int maxWindow,
+            @Value("${matchmaking.max-wait-ms:90000}") long maxWaitMillis
+    ) {
+        this.baseWindow = baseWindow;
+        this.widenBy = widenBy;
+        this.widenEveryMillis = widenEveryMillis;
+        this.maxWindow = maxWindow;
+        this.maxWaitMillis = maxWaitMillis;
+
+        for (GameType type : GameType.values()) {
+            pools.put(type, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    // =========================
+    // JOIN
+    // =========================
+    public JoinResult join(Long userId, GameType gameType, int rating) {
+        // Start CLAIMED so nobody pairs with us while we look for an opponent ourselves
+        QueueTicket me = new QueueTicket(userId, gameType, rating, sequence.incrementAndGet(), QueueTicket.State.CLAIMED);
+        if (byUser.putIfAbsent(userId, me) != null) {
+            return new JoinResult(JoinResult.Status.ALREADY_WAITING, null, null);
+        }
+
+        ConcurrentSkipListMap<Integer, Deque<QueueTicket>> pool = pools.get(gameType);
+
+        // Not linked yet, so nobody else can see (or claim) this ticket
+        QueueTicket opponent = claimOpponent(pool, me, true);
+        if (opponent != null) {
+            return paired(me, opponent);
+        }
+
+        me.release();
+        bucket(pool, rating).addLast(me);
+
+        // Another joiner may have scanned before we were linked in - look once more
+        // now that we are visible.
+        opponent = claimOpponent(pool, me, false);
+        if (opponent != null) {
+            bucket(pool, rating).remove(me);
+            return paired(me, opponent);
+        }
+
+        scheduleExpiry(me);
+        return new JoinResult(JoinResult.Status.WAITING, me, null);
+    }
+
+    // Batch mode: just wait in the pool, the pairing tick decides (see BatchPairingScheduler)
+    public JoinResult enqueue(Long userId, GameType gameType, int rating) {
+        QueueTicket me = new QueueTicket(userId, gameType, rating, sequence.incrementAndGet(), QueueTicket.State.WAITING);
+        if (byUser.putIfAbsent(userId, me) != null) {
+            return new JoinResult(JoinResult.Status.ALREADY_WAITING, null, null);
+        }
+        bucket(pools.get(gameType), rating).addLast(me);
+        scheduleExpiry(me);
+        return new JoinResult(JoinResult.Status.WAITING, me, null);
+    }
+
+    // =========================
+    // RETRY (WIDENED WINDOW)
+    // =========================
+    // Called while a player waits: their window may now reach someone it did not at join time.
+    public JoinResult retry(Long userId) {
+        QueueTicket me = byUser.get(userId);
+        if (me == null || me.isDead()) {
+            return new JoinResult(JoinResult.Status.WAITING, me, null);
+        }
+
+        ConcurrentSkipListMap<Integer, Deque<QueueTicket>> pool = pools.get(me.getGameType());
+        QueueTicket opponent = claimOpponent(pool, me, false);
+        if (opponent != null) {
+            bucket(pool, me.getRating()).remove(me);
+            return paired(me, opponent);
+        }
+
+        return new JoinResult(JoinResult.Status.WAITING, me, null);
+    }
+
+    // =========================
+    // BATCH PAIRING
+    // =========================
+    // Every pairable ticket of one GameType, in rating order
+    public List<QueueTicket> waitingSnapshot(GameType gameType) {
+        List<QueueTicket> waiting = new ArrayList<>();
+        for (Deque<QueueTicket> bucket : pools.get(gameType).values()) {
+            for (QueueTicket ticket : bucket) {
+                if (ticket.getState() == QueueTicket.State.WAITING) {
+                    waiting.add(ticket);
+                }
+            }
+        }
+        waiting.sort(Comparator.comparingInt(QueueTicket::getRating));
+        return waiting;
+    }
+
+    // Takes both tickets out of the pool, or neither (one of them was cancelled / paired meanwhile)
+    public boolean claimPair(QueueTicket a, QueueTicket b) {
+        QueueTicket older = a.getSequence() < b.getSequence() ? a : b;
+        QueueTicket newer = older == a ? b : a;
+        if (!older.claim()) return false;
+        if (!newer.claim()) {
+            older.release();
+            return false;
+        }
+        ConcurrentSkipListMap<Integer, Deque<QueueTicket>> pool = pools.get(a.getGameType());
+        bucket(pool, a.getRating()).remove(a);
+        bucket(pool, b.getRating()).remove(b);
+        paired(a, b);
+        return true;
+    }
+
+    // Put a claimed ticket back (e.g. game creation failed), keeping its original request time
+    public void requeue(QueueTicket ticket) {
+        QueueTicket fresh = new QueueTicket(ticket);
+        if (byUser.putIfAbsent(ticket.getUserId(), fresh) == null) {
+            bucket(pools.get(ticket.getGameType()), ticket.getRating()).addFirst(fresh);
+            scheduleExpiry(fresh); // same original deadline
+        }
+    }
+
+    // =========================
+    // CANCEL / LOOKUP
+    // =========================
+    public boolean cancel(Long userId) {
+        QueueTicket ticket = byUser.get(userId);
+        if (ticket == null || !ticket.cancel()) {
+            return false;
+        }
+        byUser.remove(userId, ticket);
+        return true;
+    }
+
+    // =========================
+    // EXPIRY
+    // =========================
+    // Blocks until a waiting ticket passes its max-wait, cancels it and returns it.
+    // Tickets paired or cancelled before their deadline are dropped on the way.
+    public QueueTicket takeExpired() throws InterruptedException {
+        while (true) {
+            QueueTicket ticket = deadlines.take().ticket();
+            if (ticket.cancel()) {
+                byUser.remove(ticket.getUserId(), ticket);
+                return ticket; // the stale entry is unlinked lazily by the next scan
+            }
+        }
+    }
+
+    public QueueTicket getWaiting(Long userId) {
+        QueueTicket ticket = byUser.get(userId);
+        return ticket != null && !ticket.isDead() ? ticket : null;
+    }
+
+    public int size(GameType gameType) {
+        int count = 0;
+        for (Deque<QueueTicket> bucket : pools.get(gameType).values()) {
+            for (QueueTicket ticket : bucket) {
+                if (!ticket.isDead()) count++;
+            }
+        }
+        return count;
+    }
+
+    public int windowFor(QueueTicket ticket) {
+        long steps = widenEveryMillis > 0 ? ticket.getWaitMillis() / widenEveryMillis : 0;
+        return (int) Math.min(maxWindow, baseWindow + steps * widenBy);
+    }
+
+    // =========================
+    // INTERNALS
+    // =========================
+    // Walks buckets outward from the player's own bucket (nearest rating first),
+    // oldest ticket first within a bucket. Returns the opponent with both tickets CLAIMED.
+    // meHeld = caller already owns `me` (not linked yet); otherwise both tickets are
+    // claimed older-first, so two threads racing for the same pair cannot block each other.
+    private QueueTicket claimOpponent(
+            ConcurrentSkipListMap<Integer, Deque<QueueTicket>> pool,
+            QueueTicket me,
+            boolean meHeld
+    ) {
+        int window = windowFor(me);
+        int home = bucketIndex(me.getRating());
+        int lowest = bucketIndex(me.getRating() - window);
+        int highest = bucketIndex(me.getRating() + window);
+
+        Integer up = pool.ceilingKey(home);
+        Integer down = pool.lowerKey(home);
+
+        while ((up != null && up <= highest) || (down != null && down >= lowest)) {
+            long upDistance = (up != null && up <= highest) ? up - home : Long.MAX_VALUE;
+            long downDistance = (down != null && down >= lowest) ? home - down : Long.MAX_VALUE;
+
+            Integer key;
+            if (upDistance <= downDistance) {
+                key = up;
+                up = pool.higherKey(up);
+            } else {
+                key = down;
+                down = pool.lowerKey(down);
+            }
+
+            Deque<QueueTicket> bucket = pool.get(key);
+            if (bucket == null) continue;
+
+            Iterator<QueueTicket> it = bucket.iterator();
+            while (it.hasNext()) {
+                QueueTicket candidate = it.next();
+                if (candidate == me) continue;
+                if (candidate.isDead()) {
+                    it.remove();
+                    continue;
+                }
+                if (candidate.getUserId().equals(me.getUserId())) continue;
+
+                int gap = Math.abs(candidate.getRating() - me.getRating());
+                if (gap > window || gap > windowFor(candidate)) continue;
+
+                if (meHeld) {
+                    if (candidate.claim()) {
+                        it.remove();
+                        return candidate;
+                    }
+                    continue;
+                }
+
+                QueueTicket older = candidate.getSequence() < me.getSequence() ? candidate : me;
+                QueueTicket newer = older == me ? candidate : me;
+                if (!older.claim()) {
+                    if (older == me) return null; // someone else is pairing us right now
+                    continue;
+                }
+                if (!newer.claim()) {
+                    older.release();
+                    if (newer == me) return null;
+                    continue;
+                }
+                it.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // Buckets are never removed (the rating range bounds how many exist), so an
+    // addLast can never land in a bucket that was just unlinked.
+    private Deque<QueueTicket> bucket(ConcurrentSkipListMap<Integer, Deque<QueueTicket>> pool, int rating) {
+        return pool.computeIfAbsent(bucketIndex(rating), k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private void scheduleExpiry(QueueTicket ticket) {
+        deadlines.add(new Deadline(ticket, ticket.getEnqueuedAtMillis() + maxWaitMillis));
+    }
+
+    private static int bucketIndex(int rating) {
+        return Math.floorDiv(rating, BUCKET_WIDTH);
+    }
+
+    private JoinResult paired(QueueTicket me, QueueTicket opponent) {
+        me.markMatched();
+        opponent.markMatched();
+        byUser.remove(me.getUserId(), me);
+        byUser.remove(opponent.getUserId(), opponent);
+        return new JoinResult(JoinResult.Status.PAIRED, me, opponent);
+    }
+}
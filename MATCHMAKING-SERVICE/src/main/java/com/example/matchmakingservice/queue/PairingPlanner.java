@@ -0,0 +1,108 @@
+package com.example.matchmakingservice.queue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+// Minimum-cost pairing of a whole waiting pool, used by the batch pairing tick.
+//
+// Cost = sum of rating gaps over pairs + each unpaired player's current search window.
+// The window grows with wait time, so leaving a long waiter out gets more expensive
+// every tick, and any pair that fits both windows is always cheaper than skipping both.
+// Two passes:
+// 1. a DP over the rating-sorted pool that only pairs neighbours - O(n), and the best
+//    neighbours-only matching
+// 2. the leftovers, paired greedily with the widest windows (longest waiters) first, each
+//    taking the closest leftover that fits both windows
+// Pass 2 is needed because windows differ per player: a newcomer with a narrow window sitting
+// between two long waiters is nobody's neighbour-match, and would otherwise block both of them.
+// This is a heuristic, not a proven minimum.
+public final class PairingPlanner {
+
+    public record Pair(QueueTicket first, QueueTicket second) {}
+
+    private PairingPlanner() {}
+
+    // waiting must be sorted by rating
+    public static List<Pair> plan(List<QueueTicket> waiting, ToIntFunction<QueueTicket> windowFor) {
+        int n = waiting.size();
+        int[] window = new int[n];
+        for (int i = 0; i < n; i++) {
+            window[i] = windowFor.applyAsInt(waiting.get(i));
+        }
+
+        // best[k] = min cost for the first k players; pairedWithPrev[k] = player k-1 paired with k-2
+        long[] best = new long[n + 1];
+        boolean[] pairedWithPrev = new boolean[n + 1];
+
+        for (int k = 1; k <= n; k++) {
+            best[k] = best[k - 1] + window[k - 1];
+
+            if (k >= 2) {
+                QueueTicket a = waiting.get(k - 2);
+                QueueTicket b = waiting.get(k - 1);
+                int gap = Math.abs(b.getRating() - a.getRating());
+                boolean allowed = gap <= window[k - 2] && gap <= window[k - 1]
+                        && !a.getUserId().equals(b.getUserId());
+
+                if (allowed && best[k - 2] + gap < best[k]) {
+                    best[k] = best[k - 2] + gap;
+                    pairedWithPrev[k] = true;
+                }
+            }
+        }
+
+        List<Pair> pairs = new ArrayList<>();
+        List<Integer> leftovers = new ArrayList<>();
+        for (int k = n; k >= 1; ) {
+            if (pairedWithPrev[k]) {
+                pairs.add(new Pair(waiting.get(k - 2), waiting.get(k - 1)));
+                k -= 2;
+            } else {
+                leftovers.add(k - 1);
+                k -= 1;
+            }
+        }
+        if (leftovers.size() >= 2) {
+            pairLeftovers(waiting, window, leftovers.reversed(), pairs);
+        }
+        return pairs;
+    }
+
+    // leftovers: indices into waiting, ascending (so still in rating order)
+    private static void pairLeftovers(List<QueueTicket> waiting, int[] window, List<Integer> leftovers, List<Pair> pairs) {
+        int m = leftovers.size();
+        boolean[] used = new boolean[m];
+
+        List<Integer> widestFirst = new ArrayList<>(m);
+        for (int i = 0; i < m; i++) widestFirst.add(i);
+        widestFirst.sort(Comparator.comparingInt((Integer i) -> window[leftovers.get(i)]).reversed());
+
+        for (int i : widestFirst) {
+            if (used[i]) continue;
+            QueueTicket me = waiting.get(leftovers.get(i));
+            int myWindow = window[leftovers.get(i)];
+
+            // walk outwards in rating order; stop a side once its gap leaves my window
+            int best = -1;
+            int bestGap = Integer.MAX_VALUE;
+            for (int step = -1; step <= 1; step += 2) {
+                for (int j = i + step; j >= 0 && j < m; j += step) {
+                    QueueTicket other = waiting.get(leftovers.get(j));
+                    int gap = Math.abs(other.getRating() - me.getRating());
+                    if (gap > myWindow || gap >= bestGap) break;
+                    if (used[j] || gap > window[leftovers.get(j)] || other.getUserId().equals(me.getUserId())) continue;
+                    best = j;
+                    bestGap = gap;
+                    break; // nearest usable on this side
+                }
+            }
+            if (best >= 0) {
+                used[i] = true;
+                used[best] = true;
+                pairs.add(new Pair(me, waiting.get(leftovers.get(best))));
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.matchmakingservice.queue;
+
+// Published by QueueExpirySweeper when a player waited past matchmaking.max-wait-ms
+public record QueueExpiredEvent(QueueTicket ticket) {
+}
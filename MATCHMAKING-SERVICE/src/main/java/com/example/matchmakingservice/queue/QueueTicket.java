@@ -0,0 +1,110 @@
+package com.example.matchmakingservice.queue;
+
+import com.example.matchmakingservice.entity.GameType;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+// One waiting player. All ownership changes go through CAS on state, so two joiners
+// can never both take the same opponent.
+public class QueueTicket {
+
+    public enum State {
+        WAITING,    // pairable
+        CLAIMED,    // held by a pairing attempt (short, in-memory only)
+        MATCHED,
+        CANCELLED
+    }
+
+    private final Long userId;
+    private final GameType gameType;
+    private final int rating;
+    private final long sequence; // join order, lower = older
+    private final LocalDateTime requestTime;
+    private final long enqueuedAtMillis;
+    private final AtomicReference<State> state;
+
+    QueueTicket(Long userId, GameType gameType, int rating, long sequence, State initialState) {
+        this.userId = userId;
+        this.gameType = gameType;
+        this.rating = rating;
+        this.sequence = sequence;
+        this.requestTime = LocalDateTime.now();
+        this.enqueuedAtMillis = System.currentTimeMillis();
+        this.state = new AtomicReference<>(initialState);
+    }
+
+    // Same player and original request time, back to WAITING
+    QueueTicket(QueueTicket original) {
+        this.userId = original.userId;
+        this.gameType = original.gameType;
+        this.rating = original.rating;
+        this.sequence = original.sequence;
+        this.requestTime = original.requestTime;
+        this.enqueuedAtMillis = original.enqueuedAtMillis;
+        this.state = new AtomicReference<>(State.WAITING);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public LocalDateTime getRequestTime() {
+        return requestTime;
+    }
+
+    long getEnqueuedAtMillis() {
+        return enqueuedAtMillis;
+    }
+
+    public long getWaitMillis() {
+        return System.currentTimeMillis() - enqueuedAtMillis;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    boolean claim() {
+        return state.compareAndSet(State.WAITING, State.CLAIMED);
+    }
+
+    void release() {
+        state.compareAndSet(State.CLAIMED, State.WAITING);
+    }
+
+    void markMatched() {
+        state.set(State.MATCHED);
+    }
+
+    boolean cancel() {
+        while (true) {
+            State current = state.get();
+            if (current == State.WAITING) {
+                if (state.compareAndSet(State.WAITING, State.CANCELLED)) return true;
+            } else if (current == State.CLAIMED) {
+                // A pairing attempt holds this ticket for a few CAS operations - wait it out
+                Thread.onSpinWait();
+            } else {
+                return false;
+            }
+        }
+    }
+
+    boolean isDead() {
+        State current = state.get();
+        return current == State.MATCHED || current == State.CANCELLED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.matchmakingservice.repo;
+
+import com.example.matchmakingservice.entity.GameCreationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GameCreationOutboxRepo extends JpaRepository<GameCreationOutbox, Long> {
+
+    List<GameCreationOutbox> findByNextAttemptAtLessThanEqualOrderByIdAsc(LocalDateTime now, Pageable page);
+}
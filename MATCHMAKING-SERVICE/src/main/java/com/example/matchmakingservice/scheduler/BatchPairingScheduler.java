@@ -0,0 +1,59 @@
+package com.example.matchmakingservice.scheduler;
+
+import com.example.matchmakingservice.entity.GameType;
+import com.example.matchmakingservice.metrics.MatchmakingMetrics;
+import com.example.matchmakingservice.queue.MatchmakingQueue;
+import com.example.matchmakingservice.queue.PairingPlanner;
+import com.example.matchmakingservice.queue.QueueTicket;
+import com.example.matchmakingservice.service.MatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Optional surge mode (matchmaking.batch-pairing.enabled=true): joins only enqueue, and
+// every tick snapshots each GameType's pool, computes a minimum-cost pairing over the
+// whole pool and records the resulting matches together (games follow via the outbox).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "matchmaking.batch-pairing.enabled", havingValue = "true")
+public class BatchPairingScheduler {
+
+    private final MatchmakingQueue matchmakingQueue;
+    private final MatchService matchService;
+    private final MatchmakingMetrics matchmakingMetrics;
+
+    @Scheduled(fixedDelayString = "${matchmaking.batch-pairing.tick-ms:500}")
+    public void pairWaitingPlayers() {
+        for (GameType gameType : GameType.values()) {
+            long start = System.nanoTime();
+
+            List<QueueTicket> pool = matchmakingQueue.waitingSnapshot(gameType);
+            if (pool.size() < 2) continue;
+
+            List<PairingPlanner.Pair> planned = PairingPlanner.plan(pool, matchmakingQueue::windowFor);
+
+            List<PairingPlanner.Pair> claimed = new ArrayList<>(planned.size());
+            for (PairingPlanner.Pair pair : planned) {
+                if (matchmakingQueue.claimPair(pair.first(), pair.second())) {
+                    claimed.add(pair);
+                }
+            }
+            long pairingNanos = System.nanoTime() - start;
+
+            int recorded = claimed.isEmpty() ? 0 : matchService.createMatches(claimed);
+            long totalNanos = System.nanoTime() - start;
+            matchmakingMetrics.batchPairing(gameType).record(totalNanos, TimeUnit.NANOSECONDS);
+
+            log.debug("batch pairing gameType={} pool={} paired={} matchesRecorded={} pairingMs={} totalMs={}",
+                    gameType, pool.size(), claimed.size() * 2, recorded,
+                    pairingNanos / 1_000_000.0, totalNanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.matchmakingservice.scheduler;
+
+import com.example.matchmakingservice.queue.MatchmakingQueue;
+import com.example.matchmakingservice.queue.QueueExpiredEvent;
+import com.example.matchmakingservice.queue.QueueTicket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+// Evicts players who waited too long, whether or not they are still polling.
+// One thread blocks on the queue's deadline-ordered DelayQueue, so it wakes exactly when
+// the next ticket expires and never scans the pool; each eviction is published as a
+// QueueExpiredEvent (audit cleanup and the -2 notification listen to it).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueueExpirySweeper {
+
+    private final MatchmakingQueue matchmakingQueue;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private Thread worker;
+
+    @PostConstruct
+    void start() {
+        worker = new Thread(this::run, "queue-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                QueueTicket expired = matchmakingQueue.takeExpired();
+                log.info("queue expiry: user {} removed after {} ms ({})",
+                        expired.getUserId(), expired.getWaitMillis(), expired.getGameType());
+                eventPublisher.publishEvent(new QueueExpiredEvent(expired));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("queue expiry failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.interrupt();
+    }
+}
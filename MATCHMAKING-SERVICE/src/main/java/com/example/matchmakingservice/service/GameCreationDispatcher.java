@@ -0,0 +1,201 @@
+package com.example.matchmakingservice.service;
+
+import com.example.matchmakingservice.client.GameServiceClient;
+import com.example.matchmakingservice.dto.GameCreateRequest;
+import com.example.matchmakingservice.entity.GameCreationOutbox;
+import com.example.matchmakingservice.entity.Match;
+import com.example.matchmakingservice.entity.MatchStatus;
+import com.example.matchmakingservice.metrics.MatchmakingMetrics;
+import com.example.matchmakingservice.notification.MatchNotificationService;
+import com.example.matchmakingservice.repo.GameCreationOutboxRepo;
+import com.example.matchmakingservice.repo.MatchRepo;
+import com.example.matchmakingservice.tracing.OutboxTracing;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Drains game_creation_outbox on one background thread, so no join or poll ever waits on
+// GAME-SERVICE. Each page of due rows becomes one /game/create/batch call.
+// Creation is idempotent on matchId: if the game was created but the reply (or our own
+// DB update) got lost, the retry just returns the same game id. A row GAME-SERVICE could
+// not create comes back as a null id and is retried on its own; the rest of the page goes on.
+// Woken right after a match commits; the fixed-delay poll picks up retries and rows
+// left over from a restart.
+@Slf4j
+@Service
+public class GameCreationDispatcher {
+
+    private final GameCreationOutboxRepo outboxRepo;
+    private final MatchRepo matchRepo;
+    private final GameServiceClient gameServiceClient;
+    private final MatchNotificationService matchNotificationService;
+    private final MatchmakingMetrics matchmakingMetrics;
+    private final OutboxTracing outboxTracing;
+    private final TransactionTemplate tx;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+
+    private final ScheduledExecutorService worker;
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    public GameCreationDispatcher(
+            GameCreationOutboxRepo outboxRepo,
+            MatchRepo matchRepo,
+            GameServiceClient gameServiceClient,
+            MatchNotificationService matchNotificationService,
+            MatchmakingMetrics matchmakingMetrics,
+            OutboxTracing outboxTracing,
+            TransactionTemplate tx,
+            @Value("${matchmaking.outbox.batch-size:50}") int batchSize,
+            @Value("${matchmaking.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${matchmaking.outbox.retry-delay-ms:1000}") long retryDelayMs,
+            @Value("${matchmaking.outbox.poll-interval-ms:2000}") long pollIntervalMs
+    ) {
+        this.outboxRepo = outboxRepo;
+        this.matchRepo = matchRepo;
+        this.gameServiceClient = gameServiceClient;
+        this.matchNotificationService = matchNotificationService;
+        this.matchmakingMetrics = matchmakingMetrics;
+        this.outboxTracing = outboxTracing;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-creation-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Called after a match (and its outbox row) committed; a burst of calls queues one drain
+    public void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                wakeUpQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        try {
+            List<GameCreationOutbox> due;
+            do {
+                due = outboxRepo.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                        LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (!due.isEmpty()) {
+                    dispatch(due);
+                }
+            } while (due.size() == batchSize);
+        } catch (Exception e) {
+            // DB unavailable - the next poll tries again
+            log.warn("game creation: outbox drain failed: {}", e.getMessage());
+        } finally {
+            matchmakingMetrics.outboxDrain().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One /game/create/batch call per page of due rows, traced as a continuation of the
+    // oldest match's join (the Feign call and GAME-SERVICE's spans become its children)
+    private void dispatch(List<GameCreationOutbox> entries) {
+        Span span = outboxTracing.startDispatch(entries);
+        try (Tracer.SpanInScope ignored = outboxTracing.inScope(span)) {
+            createGames(entries);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void createGames(List<GameCreationOutbox> entries) {
+        List<Long> gameIds;
+        try {
+            gameIds = gameServiceClient.createGames(entries.stream()
+                    .map(entry -> new GameCreateRequest(
+                            entry.getWhitePlayerId(), entry.getBlackPlayerId(), entry.getMatchId(), entry.getGameType()))
+                    .toList());
+        } catch (Exception e) {
+            for (GameCreationOutbox entry : entries) {
+                retryLater(entry, e);
+            }
+            return;
+        }
+
+        Map<Long, Long> gameIdByMatchId = new HashMap<>();
+        List<GameCreationOutbox> created = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            GameCreationOutbox entry = entries.get(i);
+            Long gameId = gameIds.get(i);
+            if (gameId == null) {
+                retryLater(entry, new IllegalStateException("GAME-SERVICE did not create the game"));
+                continue;
+            }
+            gameIdByMatchId.put(entry.getMatchId(), gameId);
+            created.add(entry);
+        }
+        if (created.isEmpty()) return;
+
+        tx.executeWithoutResult(status -> {
+            List<Match> matches = matchRepo.findAllById(gameIdByMatchId.keySet());
+            for (Match match : matches) {
+                match.setGameId(gameIdByMatchId.get(match.getId()));
+            }
+            matchRepo.saveAll(matches);
+            outboxRepo.deleteAllInBatch(created);
+        });
+        matchmakingMetrics.gamesCreated(created);
+
+        for (GameCreationOutbox entry : created) {
+            matchNotificationService.matchFound(
+                    entry.getWhitePlayerId(), entry.getBlackPlayerId(), gameIdByMatchId.get(entry.getMatchId()));
+        }
+    }
+
+    private void retryLater(GameCreationOutbox entry, Exception cause) {
+        int attempts = entry.getAttempts() + 1;
+        log.warn("game creation: match {} attempt {} failed: {}", entry.getMatchId(), attempts, cause.getMessage());
+
+        if (attempts >= maxAttempts) {
+            // Give up: players are told to search again (-2) instead of waiting forever
+            tx.executeWithoutResult(status -> {
+                matchRepo.findById(entry.getMatchId()).ifPresent(match -> {
+                    match.setStatus(MatchStatus.FAILED);
+                    matchRepo.save(match);
+                });
+                outboxRepo.delete(entry);
+            });
+            matchNotificationService.matchFailed(entry.getWhitePlayerId(), entry.getBlackPlayerId());
+            return;
+        }
+
+        // linear backoff, capped at a minute
+        long delayMs = Math.min(retryDelayMs * attempts, 60_000);
+        entry.setAttempts(attempts);
+        entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+        outboxRepo.save(entry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -1,47 +1,113 @@
 package com.example.matchmakingservice.service;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+// In-memory results of recently formed matches, so /check can answer without the DB.
+// The stored "matchId" is what the client receives as MatchResponse.matchId, i.e. the gameId.
+// Bounded (oldest match evicted first) and expiring: every entry lives for the same TTL,
+// so insertion order is expiry order and one sweeper thread only ever looks at the head.
 @Service
 public class MatchQueueService {
 
-    // userId -> matchId
-    private final Map<Long, Long> userToMatchId = new ConcurrentHashMap<>();
+    private record PendingMatch(Long matchId, Long player1Id, Long player2Id, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    // userId -> pending match (each player consumes their own entry)
+    private final Map<Long, PendingMatch> userToMatch = new ConcurrentHashMap<>();
+
+    // pending matches, oldest first - guarded by itself, never touched on the read path
+    private final ArrayDeque<PendingMatch> byAge = new ArrayDeque<>();
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final ScheduledExecutorService sweeper;
 
-    // matchId -> userIds
-    private final Map<Long, Set<Long>> matchToUsers = new ConcurrentHashMap<>();
+    public MatchQueueService(
+            @Value("${matchmaking.pending.max-size:10000}") int maxSize,
+            @Value("${matchmaking.pending.ttl-ms:60000}") long ttlMs,
+            @Value("${matchmaking.pending.sweep-interval-ms:1000}") long sweepIntervalMs
+    ) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pending-match-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
 
     // SAVE MATCH
     public void addPendingMatch(Long player1Id, Long player2Id, Long matchId) {
 
-        userToMatchId.put(player1Id, matchId);
-        userToMatchId.put(player2Id, matchId);
+        PendingMatch match = new PendingMatch(matchId, player1Id, player2Id, System.currentTimeMillis() + ttlMs);
 
-        Set<Long> users = ConcurrentHashMap.newKeySet();
-        users.add(player1Id);
-        users.add(player2Id);
+        synchronized (byAge) {
+            byAge.addLast(match);
+            while (byAge.size() > maxSize) {
+                remove(byAge.pollFirst());
+            }
+        }
+
+        // a newer match simply replaces an unread older one for the same player
+        userToMatch.put(player1Id, match);
+        userToMatch.put(player2Id, match);
+    }
 
-        matchToUsers.put(matchId, users);
+    // SEARCH EXPIRED - parked like a match result, so the next /check answers -2
+    public void addSearchExpired(Long userId) {
+        addPendingMatch(userId, userId, -2L);
     }
 
-    // CHECK MATCH
+    // CHECK MATCH - consumes only this player's entry; the opponent still gets theirs
     public Long getPendingMatchId(Long userId) {
 
-        Long matchId = userToMatchId.remove(userId);
-        if (matchId == null) return null;
+        PendingMatch match = userToMatch.remove(userId);
+        if (match == null || match.isExpired(System.currentTimeMillis())) return null;
 
-        // cleanup both players
-        Set<Long> users = matchToUsers.remove(matchId);
-        if (users != null) {
-            for (Long id : users) {
-                userToMatchId.remove(id);
+        return match.matchId();
+    }
+
+    // A new search invalidates any result the player never picked up
+    public void discard(Long userId) {
+        userToMatch.remove(userId);
+    }
+
+    public int size() {
+        return userToMatch.size();
+    }
+
+    // Drops both players of a match together. Conditional removes, so an entry that
+    // was already replaced by a newer match for the same player is left alone.
+    private void remove(PendingMatch match) {
+        userToMatch.remove(match.player1Id(), match);
+        userToMatch.remove(match.player2Id(), match);
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        synchronized (byAge) {
+            PendingMatch head;
+            while ((head = byAge.peekFirst()) != null && head.isExpired(now)) {
+                remove(byAge.pollFirst());
             }
         }
+    }
 
-        return matchId;
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
     }
 }
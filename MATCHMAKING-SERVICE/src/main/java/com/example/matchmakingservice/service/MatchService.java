@@ -1,143 +1,224 @@
 package com.example.matchmakingservice.service;
 
-import com.example.matchmakingservice.client.GameServiceClient;
+import com.example.matchmakingservice.entity.GameCreationOutbox;
 import com.example.matchmakingservice.entity.GameType;
 import com.example.matchmakingservice.entity.Match;
-import com.example.matchmakingservice.entity.MatchQueueEntry;
 import com.example.matchmakingservice.entity.MatchStatus;
-import com.example.matchmakingservice.repo.MatchQueueRepo;
+import com.example.matchmakingservice.metrics.MatchmakingMetrics;
+import com.example.matchmakingservice.notification.MatchNotificationService;
+import com.example.matchmakingservice.queue.MatchmakingQueue;
+import com.example.matchmakingservice.queue.PairingPlanner;
+import com.example.matchmakingservice.queue.QueueExpiredEvent;
+import com.example.matchmakingservice.queue.QueueTicket;
+import com.example.matchmakingservice.repo.GameCreationOutboxRepo;
 import com.example.matchmakingservice.repo.MatchRepo;
-import jakarta.transaction.Transactional;
+import com.example.matchmakingservice.tracing.OutboxTracing;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MatchService {
 
-    private static final long MAX_WAIT_TIME = 90_000; // 90 sec
-
     private final MatchRepo matchRepo;
-    private final MatchQueueRepo matchQueueRepo;
-    private final GameServiceClient gameServiceClient;
+    private final GameCreationOutboxRepo outboxRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MatchmakingQueue matchmakingQueue;
+    private final QueueAuditService queueAuditService;
+    private final MatchQueueService matchQueueService;
+    private final GameCreationDispatcher gameCreationDispatcher;
+    private final MatchNotificationService matchNotificationService;
+    private final RatingService ratingService;
+    private final MatchmakingMetrics matchmakingMetrics;
+    private final OutboxTracing outboxTracing;
+
+    @Value("${matchmaking.batch-pairing.enabled:false}")
+    private boolean batchPairing;
 
     // ======================
     // JOIN QUEUE
     // ======================
-    @Transactional
+    // Pairing happens entirely in memory (MatchmakingQueue, rating buckets); the DB only
+    // sees the resulting Match (+ outbox row) and an asynchronous audit row. GAME-SERVICE is
+    // called off the request path by GameCreationDispatcher.
     public Optional<Long> joinQueue(Long userId, GameType gameType) {
 
         if (gameType == null) {
             gameType = GameType.STANDARD;
         }
 
-        // 1. Check if already waiting
-        if (matchQueueRepo.existsByUserId(userId)) {
-             return Optional.of(-1L);
+        matchQueueService.discard(userId); // a result from an earlier search is stale now
+
+        // Repeated joins while waiting end here, before any USER-SERVICE call
+        // (join/enqueue still settle the race with putIfAbsent)
+        if (matchmakingQueue.getWaiting(userId) != null) {
+            return Optional.of(-1L);
+        }
+
+        int rating = ratingService.ratingOf(userId);
+        MatchmakingQueue.JoinResult result = batchPairing
+                ? matchmakingQueue.enqueue(userId, gameType, rating) // the pairing tick decides
+                : matchmakingQueue.join(userId, gameType, rating);
+
+        switch (result.status()) {
+            case ALREADY_WAITING:
+                return Optional.of(-1L);
+
+            case WAITING:
+                queueAuditService.recordJoin(result.ticket());
+                return Optional.of(-1L); // Waiting
+
+            default:
+                return Optional.of(createMatch(result.ticket(), result.opponent(), false));
         }
+    }
+
+    // Create Match (the player who waited longer plays white, as before)
+    private Match newMatch(QueueTicket a, QueueTicket b) {
+        QueueTicket white = a.getSequence() < b.getSequence() ? a : b;
+        QueueTicket black = white == a ? b : a;
+        return new Match(
+                white.getUserId(),
+                black.getUserId(),
+                MatchStatus.CREATED,
+                a.getGameType()
+        );
+    }
 
-        // 2. Try to find opponent
-        // Find oldest request that is NOT me
-        Optional<MatchQueueEntry> opponentOpt = matchQueueRepo.findFirstByGameTypeAndUserIdNotOrderByRequestTimeAsc(gameType, userId);
-
-        if (opponentOpt.isPresent()) {
-            MatchQueueEntry opponentEntry = opponentOpt.get();
-            Long opponentId = opponentEntry.getUserId();
-
-            // Create Match
-            Match match = new Match(
-                    opponentId,
-                    userId,
-                    MatchStatus.CREATED,
-                    gameType
-            );
-            matchRepo.save(match);
-            Long matchId = match.getId();
-
-            // Call Game Service
-            try {
-                Long gameId = gameServiceClient.createGame(opponentId, userId, matchId, gameType);
-                match.setGameId(gameId);
+    // caller = the player whose request formed the pair; requeueCaller = they were waiting too.
+    // Match + outbox row commit together; the game itself is created in the background by
+    // GameCreationDispatcher, so this returns -1 and the gameId arrives via push or /check.
+    private Long createMatch(QueueTicket caller, QueueTicket opponent, boolean requeueCaller) {
+        Match match = newMatch(caller, opponent);
+        String traceParent = outboxTracing.currentTraceParent();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
                 matchRepo.save(match);
-                
-                // Remove opponent from queue
-                matchQueueRepo.delete(opponentEntry);
-
-                return Optional.of(gameId);
-            } catch (Exception e) {
-                // DISTRIBUTED TRANSACTION SAFETY:
-                // If Game Service fails (or network timeout), we MUST ensure the opponent is not lost from the queue.
-                // 1. We throw a RuntimeException to trigger Spring's @Transactional Rollback.
-                // 2. This rolls back the 'Match' creation and any 'MatchQueueEntry' changes (though delete is after this).
-                // 3. Result: Opponent remains in Queue, Match is not persisted.
-                // Note: If Game Service actually created the game but timed out, we have a orphan game there.
-                // A cleanup cron job on Game Service can remove games with no associated Match status if needed.
-                throw new RuntimeException("Failed to create game - Rolling back to preserve queue", e);
+                outboxRepo.save(GameCreationOutbox.of(match, traceParent));
+            });
+        } catch (Exception e) {
+            // Nothing was committed - waiting players must not be lost:
+            // put them back in the queue with their original request time.
+            matchmakingQueue.requeue(opponent);
+            if (requeueCaller) {
+                matchmakingQueue.requeue(caller);
             }
-        } else {
-            // No opponent found -> Add to queue
-            MatchQueueEntry newEntry = MatchQueueEntry.builder()
-                    .userId(userId)
-                    .gameType(gameType)
-                    .requestTime(LocalDateTime.now())
-                    .build();
-            matchQueueRepo.save(newEntry);
-
-            return Optional.of(-1L); // Waiting
+            throw new RuntimeException("Failed to record match - players returned to queue", e);
+        }
+
+        matchmakingMetrics.paired(caller, opponent);
+        queueAuditService.recordLeave(opponent.getUserId());
+        if (requeueCaller) {
+            queueAuditService.recordLeave(caller.getUserId());
         }
+        gameCreationDispatcher.wakeUp();
+        return -1L; // matched, game on its way
+    }
+
+    // ======================
+    // BATCH (PAIRING TICK)
+    // ======================
+    // Pairs are already claimed out of the queue. All Match and outbox rows go in with one
+    // transaction; if that fails the whole tick's pairs go back to the pool.
+    public int createMatches(List<PairingPlanner.Pair> pairs) {
+        List<Match> matches = new ArrayList<>(pairs.size());
+        String traceParent = outboxTracing.currentTraceParent();
+        for (PairingPlanner.Pair pair : pairs) {
+            matches.add(newMatch(pair.first(), pair.second()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                matchRepo.saveAll(matches);
+                outboxRepo.saveAll(matches.stream().map(match -> GameCreationOutbox.of(match, traceParent)).toList());
+            });
+        } catch (Exception e) {
+            log.error("batch pairing: recording {} matches failed: {}", matches.size(), e.getMessage());
+            for (PairingPlanner.Pair pair : pairs) {
+                matchmakingQueue.requeue(pair.first());
+                matchmakingQueue.requeue(pair.second());
+            }
+            return 0;
+        }
+
+        for (PairingPlanner.Pair pair : pairs) {
+            matchmakingMetrics.paired(pair.first(), pair.second());
+            queueAuditService.recordLeave(pair.first().getUserId());
+            queueAuditService.recordLeave(pair.second().getUserId());
+        }
+        gameCreationDispatcher.wakeUp();
+        return matches.size();
     }
 
     // ======================
     // CHECK MATCH (POLLING)
     // ======================
-    @Transactional
     public Optional<Long> checkMatch(Long userId, GameType gameType) {
-        
-        // 1. Check if I have been matched (Match created recently)
-        // We look for a match with status CREATED where user is a participant
-        // Assuming MatchRepo has a finder for this. 
-        // If not, we might need to add it: findFirstByPlayer1IdOrPlayer2IdAndStatus...
-        // For now, let's try to find a match.
-        
+
+        // 1. Match formed recently? Answered from memory - most polls end here or in step 2.
+        Long pendingGameId = matchQueueService.getPendingMatchId(userId);
+        if (pendingGameId != null) {
+            return Optional.of(pendingGameId);
+        }
+
+        // 2. Still waiting in memory? Then any match in the DB is an old one.
+        //    (Giving up after max-wait is QueueExpirySweeper's job; its -2 arrives via step 1.)
+        QueueTicket ticket = matchmakingQueue.getWaiting(userId);
+        if (ticket != null) {
+            if (!batchPairing) {
+                // The search window has widened since the last attempt - try again
+                MatchmakingQueue.JoinResult retry = matchmakingQueue.retry(userId);
+                if (retry.status() == MatchmakingQueue.JoinResult.Status.PAIRED) {
+                    return Optional.of(createMatch(retry.ticket(), retry.opponent(), true));
+                }
+            }
+            return Optional.of(-1L);
+        }
+
+        // 3. Check if I have been matched (Match created recently)
         Optional<Match> matchOpt = matchRepo.findFirstByPlayer1IdOrPlayer2IdOrderByCreatedAtDesc(userId, userId);
         if (matchOpt.isPresent()) {
             Match match = matchOpt.get();
+            if (match.getStatus() == MatchStatus.FAILED) {
+                return Optional.of(-2L); // game could not be created - search again
+            }
             // If match is recent and status is CREATED or IN_PROGRESS (game started)
             // We return gameId
             if (match.getGameId() != null) {
                 return Optional.of(match.getGameId());
             }
-            // Fallback if gameId not set yet? Or ignore.
-            // Maybe it is being created processing?
-            // For now, assume consistent.
+            // gameId not set yet -> game is still being created, keep polling
         }
 
-        // 2. Check for Timeout in Queue
-        Optional<MatchQueueEntry> entryOpt = matchQueueRepo.findByUserId(userId);
-        
-        if (entryOpt.isPresent()) {
-            MatchQueueEntry entry = entryOpt.get();
-            if (entry.getRequestTime().isBefore(LocalDateTime.now().minusSeconds(90))) {
-                matchQueueRepo.delete(entry);
-                return Optional.of(-2L); // Timeout
-            }
-        } else {
-             // If not in queue and no match found, maybe just removed.
-        }
-        
         return Optional.of(-1L);
     }
-    
+
+    // ======================
+    // QUEUE EXPIRY
+    // ======================
+    @EventListener
+    public void onQueueExpired(QueueExpiredEvent event) {
+        Long userId = event.ticket().getUserId();
+        queueAuditService.recordLeave(userId);
+        matchNotificationService.searchExpired(userId);
+    }
+
     // ======================
     // CANCEL QUEUE
     // ======================
-    @Transactional
     public boolean cancelQueue(Long userId, GameType gameType) {
-        if (matchQueueRepo.existsByUserId(userId)) {
-            matchQueueRepo.deleteByUserId(userId);
+        if (matchmakingQueue.cancel(userId)) {
+            queueAuditService.recordLeave(userId);
             return true;
         }
         return false;
@@ -0,0 +1,73 @@
+package com.example.matchmakingservice.service;
+
+import com.example.matchmakingservice.entity.MatchQueueEntry;
+import com.example.matchmakingservice.queue.QueueTicket;
+import com.example.matchmakingservice.repo.MatchQueueRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Mirrors the in-memory queue into match_queue for auditing only - nothing reads it on
+// the join path. One writer thread keeps per-user ordering (join before leave); if the
+// backlog fills up, audit rows are dropped rather than slowing matchmaking down.
+@Slf4j
+@Service
+public class QueueAuditService {
+
+    private static final int MAX_BACKLOG = 10_000;
+
+    private final MatchQueueRepo matchQueueRepo;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor writer;
+
+    public QueueAuditService(MatchQueueRepo matchQueueRepo, PlatformTransactionManager transactionManager) {
+        this.matchQueueRepo = matchQueueRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.writer = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_BACKLOG),
+                r -> {
+                    Thread t = new Thread(r, "queue-audit");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> log.warn("queue audit backlog full, dropping audit record")
+        );
+    }
+
+    public void recordJoin(QueueTicket ticket) {
+        writer.execute(() -> run(() -> {
+            // replace any row left over from before a restart (userId is unique)
+            matchQueueRepo.deleteByUserId(ticket.getUserId());
+            matchQueueRepo.flush(); // Hibernate would otherwise run the INSERT before the DELETE
+            matchQueueRepo.save(MatchQueueEntry.builder()
+                    .userId(ticket.getUserId())
+                    .gameType(ticket.getGameType())
+                    .requestTime(ticket.getRequestTime())
+                    .build());
+        }));
+    }
+
+    public void recordLeave(Long userId) {
+        writer.execute(() -> run(() -> matchQueueRepo.deleteByUserId(userId)));
+    }
+
+    private void run(Runnable work) {
+        try {
+            tx.executeWithoutResult(status -> work.run());
+        } catch (Exception e) {
+            log.warn("queue audit write failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.matchmakingservice.service;
+
+import com.example.matchmakingservice.client.UserServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Player ratings for the join path. A waiting ticket keeps the rating it joined with, so this
+// is only consulted on a fresh join; recent lookups are kept (bounded LRU, short TTL) so a
+// player re-joining after a cancel or a -2 does not cost another USER-SERVICE round trip.
+// A failed lookup falls back to the default rating and is not cached.
+@Slf4j
+@Service
+public class RatingService {
+
+    private record Cached(int rating, long expiresAt) {}
+
+    private final UserServiceClient userServiceClient;
+    private final int defaultRating;
+    private final long ttlMs;
+    private final Map<Long, Cached> recent;
+
+    public RatingService(
+            UserServiceClient userServiceClient,
+            @Value("${matchmaking.rating.default:1200}") int defaultRating,
+            @Value("${matchmaking.rating.cache-ttl-ms:300000}") long ttlMs,
+            @Value("${matchmaking.rating.cache-max-size:10000}") int maxSize
+    ) {
+        this.userServiceClient = userServiceClient;
+        this.defaultRating = defaultRating;
+        this.ttlMs = ttlMs;
+        this.recent = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public int ratingOf(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            Cached cached = recent.get(userId);
+            if (cached != null && now < cached.expiresAt()) {
+                return cached.rating();
+            }
+        }
+
+        // A rating lookup failure must not block matchmaking - fall back to the default rating
+        Integer rating;
+        try {
+            rating = userServiceClient.getRating(userId);
+        } catch (Exception e) {
+            log.warn("rating lookup failed for user {}, using default: {}", userId, e.getMessage());
+            return defaultRating;
+        }
+        if (rating == null) return defaultRating;
+
+        synchronized (recent) {
+            recent.put(userId, new Cached(rating, now + ttlMs));
+        }
+        return rating;
+    }
+}
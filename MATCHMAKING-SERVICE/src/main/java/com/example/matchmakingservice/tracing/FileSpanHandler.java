@@ -0,0 +1,107 @@
+package com.example.matchmakingservice.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Appends finished spans to tracing.export.file as Zipkin v2 JSON, one span per line - grep
+// a traceId across the services' files, or POST the lines to a Zipkin collector later.
+// Boot hands every SpanHandler bean to Brave, so a Zipkin or OTLP reporter can replace this
+// without touching any instrumentation; tracing.export.type=none still creates spans (trace
+// ids in logs, propagation) but drops them.
+// Spans end on request threads, so they only go into a bounded queue here; one writer thread
+// does the I/O and a full queue drops spans rather than slowing requests down.
+// The gateway, MATCHMAKING-SERVICE and GAME-SERVICE each have this class (separate builds,
+// no shared module) - keep them the same.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tracing.export.type", havingValue = "file", matchIfMissing = true)
+public class FileSpanHandler extends SpanHandler {
+
+    private static final int MAX_BACKLOG = 10_000;
+
+    private final Path file;
+    private final BlockingQueue<String> backlog = new ArrayBlockingQueue<>(MAX_BACKLOG);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    public FileSpanHandler(@Value("${tracing.export.file:logs/spans.jsonl}") String file) {
+        this.file = Path.of(file);
+        try {
+            Path dir = this.file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create span export directory for " + file, e);
+        }
+        this.writer = new Thread(this::writeLoop, "span-file-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.ABANDONED && !backlog.offer(span.toString())) {
+            dropped.incrementAndGet();
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            try {
+                while (true) {
+                    batch.add(backlog.take());
+                    backlog.drainTo(batch);
+                    write(out, batch);
+
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        log.warn("span export backlog full, dropped {} spans", lost);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // shutting down - keep what is already queued
+                backlog.drainTo(batch);
+                write(out, batch);
+            }
+        } catch (IOException e) {
+            log.error("span export to {} stopped: {}", file, e.getMessage());
+        }
+    }
+
+    private void write(BufferedWriter out, List<String> batch) throws IOException {
+        for (String span : batch) {
+            out.write(span);
+            out.newLine();
+        }
+        out.flush();
+        batch.clear();
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        writer.interrupt();
+        writer.join(1000);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.matchmakingservice.tracing;
+
+import com.example.matchmakingservice.entity.GameCreationOutbox;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Carries a trace across the outbox. The join that formed a match stores its traceparent on
+// the outbox row; GameCreationDispatcher continues that trace when it calls GAME-SERVICE, so
+// join -> game creation is one trace even though a background thread makes the Feign call.
+@Component
+@RequiredArgsConstructor
+public class OutboxTracing {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    // W3C traceparent of the current span, null when this thread isn't traced
+    public String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null) return null;
+
+        Map<String, String> carrier = new HashMap<>();
+        propagator.inject(span.context(), carrier, Map::put);
+        return carrier.get(TRACEPARENT);
+    }
+
+    // A page holds many matches but a span has one parent: the oldest match's join, which is
+    // the one whose wait a slow dispatch shows up in first. Untraced rows start a new trace.
+    public Span startDispatch(List<GameCreationOutbox> entries) {
+        GameCreationOutbox oldest = entries.get(0);
+        Span.Builder builder = oldest.getTraceParent() != null
+                ? propagator.extract(Map.of(TRACEPARENT, oldest.getTraceParent()), Map::get)
+                : tracer.spanBuilder();
+
+        return builder
+                .name("game creation dispatch")
+                .tag("match.id", oldest.getMatchId())
+                .tag("batch.size", entries.size())
+                .start();
+    }
+
+    public Tracer.SpanInScope inScope(Span span) {
+        return tracer.withSpan(span);
+    }
+}
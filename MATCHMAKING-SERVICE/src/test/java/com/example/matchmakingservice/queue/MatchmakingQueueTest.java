@@ -0,0 +1,126 @@
+package com.example.matchmakingservice.queue;
+
+import com.example.matchmakingservice.entity.GameType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchmakingQueueTest {
+
+    // base window 100, no widening, 90 s max wait
+    private final MatchmakingQueue queue = new MatchmakingQueue(100, 50, 0, 600, 90_000);
+
+    @Test
+    void secondJoinerInsideTheWindowIsPaired() {
+        MatchmakingQueue.JoinResult first = queue.join(1L, GameType.BLITZ, 1200);
+        MatchmakingQueue.JoinResult second = queue.join(2L, GameType.BLITZ, 1280);
+
+        assertEquals(MatchmakingQueue.JoinResult.Status.WAITING, first.status());
+        assertEquals(MatchmakingQueue.JoinResult.Status.PAIRED, second.status());
+        assertSame(first.ticket(), second.opponent());
+        assertEquals(QueueTicket.State.MATCHED, first.ticket().getState());
+        assertNull(queue.getWaiting(1L));
+        assertNull(queue.getWaiting(2L));
+    }
+
+    @Test
+    void gapOutsideTheWindowOrOtherGameTypeWaits() {
+        queue.join(1L, GameType.BLITZ, 1200);
+
+        assertEquals(MatchmakingQueue.JoinResult.Status.WAITING, queue.join(2L, GameType.BLITZ, 1301).status());
+        assertEquals(MatchmakingQueue.JoinResult.Status.WAITING, queue.join(3L, GameType.RAPID, 1200).status());
+        assertEquals(2, queue.size(GameType.BLITZ));
+    }
+
+    @Test
+    void joiningTwiceIsRejected() {
+        queue.join(1L, GameType.BLITZ, 1200);
+
+        assertEquals(MatchmakingQueue.JoinResult.Status.ALREADY_WAITING, queue.join(1L, GameType.RAPID, 1200).status());
+        assertEquals(MatchmakingQueue.JoinResult.Status.ALREADY_WAITING, queue.enqueue(1L, GameType.BLITZ, 1200).status());
+    }
+
+    @Test
+    void cancelledTicketIsNeverPaired() {
+        queue.join(1L, GameType.BLITZ, 1200);
+        assertTrue(queue.cancel(1L));
+        assertFalse(queue.cancel(1L));
+
+        assertEquals(MatchmakingQueue.JoinResult.Status.WAITING, queue.join(2L, GameType.BLITZ, 1200).status());
+        assertEquals(1, queue.size(GameType.BLITZ));
+    }
+
+    @Test
+    void claimPairTakesBothOrNeither() {
+        QueueTicket a = queue.enqueue(1L, GameType.BLITZ, 1200).ticket();
+        QueueTicket b = queue.enqueue(2L, GameType.BLITZ, 1210).ticket();
+        QueueTicket c = queue.enqueue(3L, GameType.BLITZ, 1220).ticket();
+        queue.cancel(3L);
+
+        assertFalse(queue.claimPair(a, c));
+        assertEquals(QueueTicket.State.WAITING, a.getState()); // released, not stuck in CLAIMED
+
+        assertTrue(queue.claimPair(a, b));
+        assertFalse(queue.claimPair(b, a));
+        assertTrue(queue.waitingSnapshot(GameType.BLITZ).isEmpty());
+    }
+
+    @Test
+    void requeuedTicketIsWaitingAgain() {
+        QueueTicket a = queue.enqueue(1L, GameType.BLITZ, 1200).ticket();
+        QueueTicket b = queue.enqueue(2L, GameType.BLITZ, 1210).ticket();
+        queue.claimPair(a, b);
+
+        queue.requeue(a);
+
+        QueueTicket again = queue.getWaiting(1L);
+        assertEquals(QueueTicket.State.WAITING, again.getState());
+        assertEquals(a.getRequestTime(), again.getRequestTime());
+        assertEquals(List.of(again), queue.waitingSnapshot(GameType.BLITZ));
+    }
+
+    @Test
+    void concurrentJoinersAreEachPairedAtMostOnce() throws Exception {
+        int players = 400;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MatchmakingQueue.JoinResult>> results = new ArrayList<>();
+        for (long userId = 1; userId <= players; userId++) {
+            long id = userId;
+            results.add(pool.submit(() -> {
+                start.await();
+                return queue.join(id, GameType.BLITZ, 1200 + (int) (id % 50));
+            }));
+        }
+        start.countDown();
+
+        Set<Long> paired = new HashSet<>();
+        int pairs = 0;
+        for (Future<MatchmakingQueue.JoinResult> result : results) {
+            MatchmakingQueue.JoinResult join = result.get(10, TimeUnit.SECONDS);
+            if (join.status() == MatchmakingQueue.JoinResult.Status.PAIRED) {
+                pairs++;
+                assertTrue(paired.add(join.ticket().getUserId()));
+                assertTrue(paired.add(join.opponent().getUserId()));
+            }
+        }
+        pool.shutdown();
+
+        // nobody lost: every player is either in exactly one pair or still waiting
+        assertEquals(players - 2 * pairs, queue.size(GameType.BLITZ));
+    }
+}
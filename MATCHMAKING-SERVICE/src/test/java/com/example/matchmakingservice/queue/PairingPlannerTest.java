@@ -0,0 +1,91 @@
+package com.example.matchmakingservice.queue;
+
+import com.example.matchmakingservice.entity.GameType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairingPlannerTest {
+
+    private final Map<Long, Integer> windows = new HashMap<>();
+    private final List<QueueTicket> pool = new ArrayList<>();
+
+    private void player(long userId, int rating, int window) {
+        pool.add(new QueueTicket(userId, GameType.BLITZ, rating, userId, QueueTicket.State.WAITING));
+        windows.put(userId, window);
+    }
+
+    private List<PairingPlanner.Pair> plan() {
+        pool.sort(Comparator.comparingInt(QueueTicket::getRating));
+        return PairingPlanner.plan(pool, ticket -> windows.get(ticket.getUserId()));
+    }
+
+    private static Set<Set<Long>> asSets(List<PairingPlanner.Pair> pairs) {
+        return pairs.stream()
+                .map(p -> Set.of(p.first().getUserId(), p.second().getUserId()))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void pairsNeighboursWithinBothWindows() {
+        player(1, 1000, 100);
+        player(2, 1050, 100);
+        player(3, 1500, 100);
+        player(4, 1560, 100);
+
+        assertEquals(Set.of(Set.of(1L, 2L), Set.of(3L, 4L)), asSets(plan()));
+    }
+
+    @Test
+    void gapMustFitBothWindows() {
+        player(1, 1000, 300);
+        player(2, 1200, 100);
+
+        assertTrue(plan().isEmpty());
+    }
+
+    @Test
+    void narrowWindowBetweenTwoLongWaitersDoesNotBlockThem() {
+        // 50 fits nobody (its window is 10); 0 and 100 fit each other but are not neighbours
+        player(1, 0, 100);
+        player(2, 50, 10);
+        player(3, 100, 100);
+
+        assertEquals(Set.of(Set.of(1L, 3L)), asSets(plan()));
+    }
+
+    @Test
+    void leftoverPassGivesLongestWaiterItsClosestFit() {
+        // no neighbours fit; 100 has the widest window, so it picks first and takes 0 over 250
+        player(1, 0, 300);
+        player(2, 50, 10);
+        player(3, 100, 400);
+        player(4, 150, 10);
+        player(5, 250, 300);
+
+        assertEquals(Set.of(Set.of(1L, 3L)), asSets(plan()));
+    }
+
+    @Test
+    void noPlayerIsPairedTwice() {
+        for (long id = 1; id <= 50; id++) {
+            player(id, (int) (id * 37 % 400), (int) (id % 3 == 0 ? 20 : 150));
+        }
+
+        List<Long> paired = new ArrayList<>();
+        for (PairingPlanner.Pair pair : plan()) {
+            paired.add(pair.first().getUserId());
+            paired.add(pair.second().getUserId());
+        }
+        assertEquals(paired.size(), Set.copyOf(paired).size());
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.matchmakingservice.simulation;
+
+import com.example.matchmakingservice.client.GameServiceClient;
+import com.example.matchmakingservice.client.UserServiceClient;
+import com.example.matchmakingservice.entity.GameCreationOutbox;
+import com.example.matchmakingservice.entity.GameType;
+import com.example.matchmakingservice.entity.Match;
+import com.example.matchmakingservice.entity.TimeOrderedIdGenerator;
+import com.example.matchmakingservice.metrics.MatchmakingMetrics;
+import com.example.matchmakingservice.notification.MatchNotificationService;
+import com.example.matchmakingservice.queue.MatchmakingQueue;
+import com.example.matchmakingservice.queue.QueueExpiredEvent;
+import com.example.matchmakingservice.repo.GameCreationOutboxRepo;
+import com.example.matchmakingservice.repo.MatchQueueRepo;
+import com.example.matchmakingservice.repo.MatchRepo;
+import com.example.matchmakingservice.scheduler.BatchPairingScheduler;
+import com.example.matchmakingservice.scheduler.QueueExpirySweeper;
+import com.example.matchmakingservice.service.GameCreationDispatcher;
+import com.example.matchmakingservice.service.MatchQueueService;
+import com.example.matchmakingservice.service.MatchService;
+import com.example.matchmakingservice.service.QueueAuditService;
+import com.example.matchmakingservice.service.RatingService;
+import com.example.matchmakingservice.tracing.OutboxTracing;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Load simulator for the matchmaking path (not a unit test - surefire ignores it).
+//
+//   mvn -Psimulate test-compile exec:java -Dsim.players=5000 -Dsim.arrival-seconds=60
+//
+// Wires the real MatchService / MatchmakingQueue / outbox dispatcher / expiry sweeper
+// together with in-memory repositories and stubbed Feign clients, then replays a Poisson
+// arrival stream of players (normal rating distribution, some cancelling) who poll
+// /check like the frontend does. Reports time-to-pair and time-to-game percentiles,
+// throughput, the rating-gap distribution and repository calls per join.
+//
+// Settings (-Dsim.*): players, arrival-seconds, cancel-rate, poll-ms, rating-mean,
+// rating-sd, max-wait-ms, game-latency-ms, batch (true = batch pairing tick), threads, seed.
+public class MatchmakingSimulation {
+
+    // =========================
+    // SETTINGS
+    // =========================
+    private final int players = Integer.getInteger("sim.players", 5000);
+    private final int arrivalSeconds = Integer.getInteger("sim.arrival-seconds", 60);
+    private final double cancelRate = Double.parseDouble(System.getProperty("sim.cancel-rate", "0.05"));
+    private final long pollMs = Long.getLong("sim.poll-ms", 1000);
+    private final int ratingMean = Integer.getInteger("sim.rating-mean", 1200);
+    private final int ratingSd = Integer.getInteger("sim.rating-sd", 250);
+    private final long maxWaitMs = Long.getLong("sim.max-wait-ms", 90_000);
+    private final long gameLatencyMs = Long.getLong("sim.game-latency-ms", 20);
+    private final boolean batch = Boolean.getBoolean("sim.batch");
+    private final int threads = Integer.getInteger("sim.threads", 16);
+    private final Random random = new Random(Long.getLong("sim.seed", 42));
+
+    // =========================
+    // MEASUREMENTS
+    // =========================
+    private final Map<String, LongAdder> queries = new ConcurrentSkipListMap<>();
+    private final Map<Long, Integer> ratings = new ConcurrentHashMap<>();
+    private final Map<Long, Long> joinedAt = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pairedAt = new ConcurrentHashMap<>();
+    private final Map<Long, Long> gameSeenAt = new ConcurrentHashMap<>();
+    private final List<Integer> gaps = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder gamesCreated = new LongAdder();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry(); // MatchmakingMetrics
+
+    // in-memory "tables"
+    private final Map<Long, Match> matches = new ConcurrentHashMap<>();
+    private final Map<Long, Match> latestMatchByUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, GameCreationOutbox> outbox = new ConcurrentSkipListMap<>();
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("id.node-id", "0"); // one simulated instance
+        new MatchmakingSimulation().run();
+    }
+
+    private void run() throws Exception {
+        // ---- wiring (what Spring would do) ----
+        PlatformTransactionManager txManager = stub(PlatformTransactionManager.class, "tx", (method, a) ->
+                method.getName().equals("getTransaction") ? new SimpleTransactionStatus() : null);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        MatchRepo matchRepo = stub(MatchRepo.class, "match", this::matchRepo);
+        GameCreationOutboxRepo outboxRepo = stub(GameCreationOutboxRepo.class, "outbox", this::outboxRepo);
+        MatchQueueRepo matchQueueRepo = stub(MatchQueueRepo.class, "match_queue", (method, a) -> null);
+
+        UserServiceClient userServiceClient = stub(UserServiceClient.class, "feign.user", (method, a) -> ratings.get((Long) a[0]));
+        GameServiceClient gameServiceClient = stub(GameServiceClient.class, "feign.game", this::gameService);
+
+        MatchmakingQueue queue = new MatchmakingQueue(100, 50, 5000, 600, maxWaitMs);
+        QueueAuditService audit = new QueueAuditService(matchQueueRepo, txManager);
+        MatchQueueService pending = new MatchQueueService(10_000, 60_000, 1000);
+        MatchNotificationService notifications = new MatchNotificationService(pending);
+        MatchmakingMetrics metrics = new MatchmakingMetrics(meters);
+        OutboxTracing tracing = new OutboxTracing(Tracer.NOOP, Propagator.NOOP);
+        GameCreationDispatcher dispatcher = new GameCreationDispatcher(
+                outboxRepo, matchRepo, gameServiceClient, notifications, metrics, tracing, tx, 50, 10, 1000, 2000);
+
+        MatchService matchService = new MatchService(
+                matchRepo, outboxRepo, tx, queue, audit, pending, dispatcher, notifications,
+                new RatingService(userServiceClient, ratingMean, 300_000, 10_000), metrics, tracing);
+        ReflectionTestUtils.setField(matchService, "batchPairing", batch);
+
+        ApplicationEventPublisher events = event -> matchService.onQueueExpired((QueueExpiredEvent) event);
+        QueueExpirySweeper sweeper = new QueueExpirySweeper(queue, events);
+        ReflectionTestUtils.invokeMethod(sweeper, "start");
+
+        ScheduledExecutorService clients = Executors.newScheduledThreadPool(threads);
+        if (batch) {
+            BatchPairingScheduler tick = new BatchPairingScheduler(queue, matchService, metrics);
+            clients.scheduleWithFixedDelay(tick::pairWaitingPlayers, 500, 500, TimeUnit.MILLISECONDS);
+        }
+
+        // ---- arrivals ----
+        System.out.printf("SIMULATION: %d players over %ds, cancel-rate=%.2f, poll=%dms, rating N(%d, %d), batch=%s%n",
+                players, arrivalSeconds, cancelRate, pollMs, ratingMean, ratingSd, batch);
+
+        CountDownLatch done = new CountDownLatch(players);
+        double meanGapMs = arrivalSeconds * 1000.0 / players;
+        double at = 0;
+        long start = System.currentTimeMillis();
+
+        for (long userId = 1; userId <= players; userId++) {
+            at += -Math.log(1 - random.nextDouble()) * meanGapMs; // exponential inter-arrival
+            int rating = (int) Math.max(400, Math.min(2800, ratingMean + random.nextGaussian() * ratingSd));
+            ratings.put(userId, rating);
+            GameType gameType = pickGameType();
+            long cancelAfter = random.nextDouble() < cancelRate ? 2000 + random.nextInt(28_000) : -1;
+
+            long id = userId;
+            clients.schedule(() -> join(matchService, clients, done, id, gameType, cancelAfter),
+                    (long) at, TimeUnit.MILLISECONDS);
+        }
+
+        boolean finished = done.await(arrivalSeconds * 1000L + maxWaitMs + 30_000, TimeUnit.MILLISECONDS);
+        long elapsedMs = System.currentTimeMillis() - start;
+
+        clients.shutdownNow();
+        ReflectionTestUtils.invokeMethod(sweeper, "stop");
+        ReflectionTestUtils.invokeMethod(dispatcher, "shutdown");
+        ReflectionTestUtils.invokeMethod(audit, "shutdown");
+        ReflectionTestUtils.invokeMethod(pending, "shutdown");
+
+        report(elapsedMs, finished);
+    }
+
+    // =========================
+    // SIMULATED CLIENT
+    // =========================
+    private void join(MatchService matchService, ScheduledExecutorService clients, CountDownLatch done,
+                      Long userId, GameType gameType, long cancelAfter) {
+        joinedAt.put(userId, System.currentTimeMillis());
+        joins.increment();
+        long result = matchService.joinQueue(userId, gameType).orElse(-2L);
+        if (!finishedWith(userId, result, done)) {
+            clients.schedule(() -> poll(matchService, clients, done, userId, gameType, cancelAfter),
+                    pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll(MatchService matchService, ScheduledExecutorService clients, CountDownLatch done,
+                      Long userId, GameType gameType, long cancelAfter) {
+        long waited = System.currentTimeMillis() - joinedAt.get(userId);
+        if (cancelAfter > 0 && waited >= cancelAfter && !pairedAt.containsKey(userId)) {
+            if (matchService.cancelQueue(userId, gameType)) {
+                cancelled.increment();
+                done.countDown();
+                return;
+            }
+        }
+
+        long result = matchService.checkMatch(userId, gameType).orElse(-2L);
+        if (!finishedWith(userId, result, done)) {
+            clients.schedule(() -> poll(matchService, clients, done, userId, gameType, cancelAfter),
+                    pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean finishedWith(Long userId, long result, CountDownLatch done) {
+        if (result > 0) {
+            gameSeenAt.put(userId, System.currentTimeMillis());
+        } else if (result == -2) {
+            expired.increment();
+        } else {
+            return false;
+        }
+        done.countDown();
+        return true;
+    }
+
+    private GameType pickGameType() {
+        double p = random.nextDouble();
+        return p < 0.5 ? GameType.BLITZ : p < 0.8 ? GameType.RAPID : GameType.STANDARD;
+    }
+
+    // =========================
+    // STUBS
+    // =========================
+    private Object matchRepo(Method method, Object[] a) {
+        switch (method.getName()) {
+            case "save":
+                storeMatch((Match) a[0]);
+                return a[0];
+            case "saveAll":
+                List<Match> saved = new ArrayList<>();
+                for (Object m : (Iterable<?>) a[0]) {
+                    storeMatch((Match) m);
+                    saved.add((Match) m);
+                }
+                return saved;
+            case "findById":
+                return Optional.ofNullable(matches.get((Long) a[0]));
+            case "findAllById":
+                List<Match> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) a[0]) {
+                    Match m = matches.get((Long) id);
+                    if (m != null) found.add(m);
+                }
+                return found;
+            case "findFirstByPlayer1IdOrPlayer2IdOrderByCreatedAtDesc":
+                return Optional.ofNullable(latestMatchByUser.get((Long) a[0]));
+            default:
+                throw new UnsupportedOperationException("MatchRepo." + method.getName());
+        }
+    }
+
+    private void storeMatch(Match match) {
+        if (match.getId() == null) {
+            match.setId(TimeOrderedIdGenerator.nextId());
+            long now = System.currentTimeMillis();
+            pairedAt.put(match.getPlayer1Id(), now);
+            pairedAt.put(match.getPlayer2Id(), now);
+            gaps.add(Math.abs(ratings.get(match.getPlayer1Id()) - ratings.get(match.getPlayer2Id())));
+        }
+        matches.put(match.getId(), match);
+        latestMatchByUser.put(match.getPlayer1Id(), match);
+        latestMatchByUser.put(match.getPlayer2Id(), match);
+    }
+
+    private Object outboxRepo(Method method, Object[] a) {
+        switch (method.getName()) {
+            case "save":
+                storeOutbox((GameCreationOutbox) a[0]);
+                return a[0];
+            case "saveAll":
+                List<GameCreationOutbox> saved = new ArrayList<>();
+                for (Object e : (Iterable<?>) a[0]) {
+                    storeOutbox((GameCreationOutbox) e);
+                    saved.add((GameCreationOutbox) e);
+                }
+                return saved;
+            case "delete":
+                outbox.remove(((GameCreationOutbox) a[0]).getId());
+                return null;
+            case "deleteAllInBatch":
+                for (Object e : (Iterable<?>) a[0]) {
+                    outbox.remove(((GameCreationOutbox) e).getId());
+                }
+                return null;
+            case "findByNextAttemptAtLessThanEqualOrderByIdAsc":
+                LocalDateTime now = (LocalDateTime) a[0];
+                int limit = ((Pageable) a[1]).getPageSize();
+                return outbox.values().stream()
+                        .filter(e -> !e.getNextAttemptAt().isAfter(now))
+                        .limit(limit)
+                        .toList();
+            default:
+                throw new UnsupportedOperationException("GameCreationOutboxRepo." + method.getName());
+        }
+    }
+
+    private void storeOutbox(GameCreationOutbox entry) {
+        if (entry.getId() == null) {
+            entry.setId(TimeOrderedIdGenerator.nextId());
+        }
+        outbox.put(entry.getId(), entry);
+    }
+
+    private Object gameService(Method method, Object[] a) throws InterruptedException {
+        if (gameLatencyMs > 0) {
+            Thread.sleep(gameLatencyMs);
+        }
+        if (method.getName().equals("createGames")) {
+            int n = ((Collection<?>) a[0]).size();
+            gamesCreated.add(n);
+            List<Long> ids = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) ids.add(TimeOrderedIdGenerator.nextId());
+            return ids;
+        }
+        gamesCreated.increment();
+        return TimeOrderedIdGenerator.nextId();
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Exception;
+    }
+
+    // Interface stub that counts every call as one query / remote call
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<T> type, String name, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> name + "-stub";
+                };
+            }
+            queries.computeIfAbsent(name + "." + method.getName(), k -> new LongAdder()).increment();
+            return handler.handle(method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocation);
+    }
+
+    // =========================
+    // REPORT
+    // =========================
+    private void report(long elapsedMs, boolean finished) {
+        List<Long> toPair = new ArrayList<>();
+        List<Long> toGame = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : joinedAt.entrySet()) {
+            Long paired = pairedAt.get(e.getKey());
+            Long seen = gameSeenAt.get(e.getKey());
+            if (paired != null) toPair.add(paired - e.getValue());
+            if (seen != null) toGame.add(seen - e.getValue());
+        }
+
+        long joinCount = joins.sum();
+        System.out.println();
+        System.out.println("=================== MATCHMAKING SIMULATION ===================");
+        System.out.printf("finished=%s in %.1fs | joins=%d matched=%d cancelled=%d expired(-2)=%d games=%d%n",
+                finished, elapsedMs / 1000.0, joinCount, gameSeenAt.size(), cancelled.sum(), expired.sum(), gamesCreated.sum());
+        System.out.printf("throughput: %.1f joins/s, %.1f matches/s%n",
+                joinCount * 1000.0 / elapsedMs, (toPair.size() / 2) * 1000.0 / elapsedMs);
+        System.out.println("time to pair (ms):       " + percentiles(toPair));
+        System.out.println("time to game seen (ms):  " + percentiles(toGame) + "  (includes poll interval)");
+
+        System.out.println("rating gap distribution:");
+        int[] edges = {25, 50, 100, 200, 400, Integer.MAX_VALUE};
+        Map<String, Integer> histogram = new TreeMap<>();
+        List<Integer> gapList;
+        synchronized (gaps) {
+            gapList = new ArrayList<>(gaps);
+        }
+        for (int gap : gapList) {
+            int lower = 0;
+            for (int edge : edges) {
+                if (gap < edge) {
+                    String label = edge == Integer.MAX_VALUE ? String.format("%4d+     ", lower) : String.format("%4d-%-4d ", lower, edge - 1);
+                    histogram.merge(label, 1, Integer::sum);
+                    break;
+                }
+                lower = edge;
+            }
+        }
+        histogram.forEach((label, count) -> System.out.printf("  %s %6d  (%.1f%%)%n",
+                label, count, count * 100.0 / Math.max(1, gapList.size())));
+
+        long total = 0;
+        System.out.println("repository / remote calls:");
+        for (Map.Entry<String, LongAdder> e : queries.entrySet()) {
+            System.out.printf("  %-60s %8d%n", e.getKey(), e.getValue().sum());
+            if (!e.getKey().startsWith("feign.") && !e.getKey().startsWith("tx.")) total += e.getValue().sum();
+        }
+        System.out.printf("DB queries per join: %.2f (%d repository calls / %d joins; audit writes are async)%n",
+                total / (double) Math.max(1, joinCount), total, joinCount);
+        System.out.println("service timers (MatchmakingMetrics):");
+        meters.getMeters().stream()
+                .filter(m -> m instanceof Timer t && t.count() > 0)
+                .map(m -> (Timer) m)
+                .sorted(Comparator.comparing(t -> t.getId().toString()))
+                .forEach(t -> System.out.printf("  %-60s n=%d mean=%.1fms max=%.1fms%n",
+                        t.getId().getName() + t.getId().getTags().stream()
+                                .map(tag -> "," + tag.getValue()).reduce("", String::concat),
+                        t.count(), t.mean(TimeUnit.MILLISECONDS), t.max(TimeUnit.MILLISECONDS)));
+        System.out.println("==============================================================");
+    }
+
+    private static String percentiles(List<Long> values) {
+        if (values.isEmpty()) return "n/a";
+        List<Long> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        return String.format("n=%d p50=%d p90=%d p99=%d max=%d",
+                sorted.size(), at(sorted, 0.50), at(sorted, 0.90), at(sorted, 0.99), sorted.get(sorted.size() - 1));
+    }
+
+    private static long at(List<Long> sorted, double q) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(q * sorted.size()) - 1));
+    }
+}
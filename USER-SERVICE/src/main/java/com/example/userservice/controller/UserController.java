@@ -1,16 +1,28 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.service.UserService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@RequiredArgsConstructor
 public class UserController {
 
+    private final UserService userService;
+
     @GetMapping("/user/username")
     public String getUser(Authentication authentication) {
         return authentication.getName();
     }
 
+    // Used by MATCHMAKING-SERVICE (Feign) for rating-band pairing
+    @GetMapping("/users/{userId}/rating")
+    public Integer getRating(@PathVariable Long userId) {
+        return userService.getRating(userId);
+    }
+
 
 }
@@ -0,0 +1,16 @@
+package com.example.userservice.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Put on an @Id instead of @GeneratedValue(IDENTITY): the id is assigned in memory at
+// persist time (see TimeOrderedIdGenerator), so inserts can be batched.
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -15,7 +15,7 @@ import lombok.NoArgsConstructor;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long userId;
 
     @Size(min = 4, max = 50, message = "Username must be between 4 and 50 characters")
@@ -17,6 +17,18 @@ public class UserPrincipal implements UserDetails {
         this.user = user;
     }
 
+    // Stateless authentication: built from verified JWT claims, no DB lookup (no password)
+    public static UserPrincipal fromClaims(Long userId, String username) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setUsername(username);
+        return new UserPrincipal(user);
+    }
+
+    public Long getUserId() {
+        return user.getUserId();
+    }
+
     @Override
     public String getUsername() {
         return user.getUsername();
@@ -1,7 +1,9 @@
 package com.example.userservice.filters;
 
+import com.example.userservice.entity.UserPrincipal;
 import com.example.userservice.service.JwtService;
-import com.example.userservice.service.MyUserDetailsService;
+import com.example.userservice.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -23,7 +25,7 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final MyUserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Value("${jwt.header}")
     private String jwtHeader;
@@ -34,6 +36,11 @@ public class JwtFilter extends OncePerRequestFilter {
     @Value("${jwt.cookie-name}")
     private String cookieName;
 
+    // stateless: principal straight from the verified claims (no DB round trip)
+    // db: principal loaded through UserPrincipalCache, for DB-fresh user state
+    @Value("${jwt.auth-mode:stateless}")
+    private String authMode;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
@@ -57,36 +64,34 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username;
-        try {
-            username = jwtService.extractUsername(token);
-        } catch (Exception e) {
+        // Single parse: signature + expiry
+        Claims claims = jwtService.parseValid(token);
+        if (claims == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails =
-                    userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(token, userDetails)) {
-
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource()
-                                .buildDetails(request)
-                );
-
-                SecurityContextHolder.getContext()
-                        .setAuthentication(authToken);
-            }
+            String username = claims.getSubject();
+            UserDetails userDetails = "db".equalsIgnoreCase(authMode)
+                    ? userPrincipalCache.load(username)
+                    : UserPrincipal.fromClaims(claims.get("userId", Long.class), username);
+
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource()
+                            .buildDetails(request)
+            );
+
+            SecurityContextHolder.getContext()
+                    .setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
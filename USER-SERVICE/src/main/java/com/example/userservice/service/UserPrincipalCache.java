@@ -0,0 +1,55 @@
+package com.example.userservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Short-lived cache in front of MyUserDetailsService for jwt.auth-mode=db, where the
+// principal must reflect the DB (e.g. a deleted user loses access) but not one query
+// per request. ttl-ms bounds how stale it can be; 0 disables caching.
+@Service
+public class UserPrincipalCache {
+
+    private record Entry(UserDetails principal, long loadedAt) {}
+
+    private final MyUserDetailsService userDetailsService;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserPrincipalCache(
+            MyUserDetailsService userDetailsService,
+            @Value("${jwt.principal-cache.ttl-ms:5000}") long ttlMs,
+            @Value("${jwt.principal-cache.max-size:10000}") int maxSize
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails load(String username) {
+        if (ttlMs <= 0) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt() < ttlMs) {
+            return entry.principal();
+        }
+
+        UserDetails principal = userDetailsService.loadUserByUsername(username);
+        if (entries.size() >= maxSize) {
+            // entries only live ttl-ms anyway - drop the expired ones, or everything if all are fresh
+            entries.values().removeIf(e -> now - e.loadedAt() >= ttlMs);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(username, new Entry(principal, now));
+        return principal;
+    }
+}
@@ -22,4 +22,11 @@ public class UserService {
                 .orElseThrow(() ->
                         new RuntimeException("User not found"));
     }
+
+    public Integer getRating(Long userId) {
+        return userRepo.findById(userId)
+                .map(User::getRating)
+                .orElseThrow(() ->
+                        new RuntimeException("User not found"));
+    }
 }
@@ -11,6 +11,7 @@ const GameInfo = ({ streak }) => {
 
   const pollingIntervalRef = useRef(null);
   const searchTimerRef = useRef(null);
+  const eventSourceRef = useRef(null);
 
   // Configuration for Game Modes
   const GAME_MODES = [
@@ -42,6 +43,7 @@ const GameInfo = ({ streak }) => {
     return () => {
       if (pollingIntervalRef.current) clearInterval(pollingIntervalRef.current);
       if (searchTimerRef.current) clearTimeout(searchTimerRef.current);
+      if (eventSourceRef.current) eventSourceRef.current.close();
     };
   }, []);
 
@@ -54,7 +56,23 @@ const GameInfo = ({ streak }) => {
     return userId;
   };
 
+  const closeEvents = () => {
+    if (eventSourceRef.current) {
+      eventSourceRef.current.close();
+      eventSourceRef.current = null;
+    }
+  };
+
+  const matchFound = (gameId) => {
+    clearInterval(pollingIntervalRef.current);
+    clearTimeout(searchTimerRef.current);
+    closeEvents();
+    setIsSearching(false);
+    navigate(`/game?id=${gameId}`);
+  };
+
   const cancelSearch = async () => {
+    closeEvents();
     if (pollingIntervalRef.current) {
       clearInterval(pollingIntervalRef.current);
       pollingIntervalRef.current = null;
@@ -78,11 +96,31 @@ const GameInfo = ({ streak }) => {
     setSearchTime(0);
   };
 
+  // Match-found is pushed over SSE; polling stays as a slow fallback
+  const listenForMatch = () => {
+    const source = new EventSource("http://localhost:8060/matchmaking/events", { withCredentials: true });
+    source.addEventListener("match", (event) => {
+      const result = JSON.parse(event.data);
+      if (result.matchId && result.matchId > 0) {
+        matchFound(result.matchId);
+      } else if (result.matchId === -2) {
+        cancelSearch(); // Game could not be created
+      }
+    });
+    source.onerror = () => {
+      // Stream dropped or timed out - the poll below still covers us
+      closeEvents();
+    };
+    eventSourceRef.current = source;
+  };
+
   const pollForMatch = () => {
     let attempts = 0;
     const maxAttempts = 90;
     const userId = getUserId();
 
+    listenForMatch();
+
     pollingIntervalRef.current = setInterval(async () => {
       attempts++;
       setSearchTime(attempts);
@@ -93,6 +131,11 @@ const GameInfo = ({ streak }) => {
         return;
       }
 
+      // Every second while the stream is down, otherwise every 5s
+      if (eventSourceRef.current && attempts % 5 !== 0) {
+        return;
+      }
+
       try {
         const response = await fetch(`http://localhost:8060/matchmaking/check?gameType=${gameType}`, {
           method: 'GET',
@@ -103,10 +146,7 @@ const GameInfo = ({ streak }) => {
         if (response.ok) {
           const result = await response.json();
           if (result.matchId && result.matchId > 0) {
-            clearInterval(pollingIntervalRef.current);
-            clearTimeout(searchTimerRef.current);
-            setIsSearching(false);
-            navigate(`/game?id=${result.matchId}`);
+            matchFound(result.matchId);
           } else if (result.matchId === -2) {
             cancelSearch(); // Timeout
           }
@@ -136,14 +176,14 @@ const GameInfo = ({ streak }) => {
 
       if (response.ok) {
         const data = await response.json();
-        // data.matchId is either the GameID (positive) or Status (-1: waiting, -2: error)
+        // data.matchId is either the GameID (positive) or Status (-1: waiting or game being created, -2: error)
         if (data.matchId > 0) {
           // Instant match found
           setIsSearching(false);
           const gameId = data.matchId;
           navigate(`/game?id=${gameId}`);
         } else if (data.matchId === -1) {
-          // Added to queue, start polling
+          // Added to queue, wait for the match-found push
           pollForMatch();
         } else {
           alert("Could not join matchmaking queue (Err: " + data.matchId + ")");